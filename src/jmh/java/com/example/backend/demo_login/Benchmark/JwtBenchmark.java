@@ -0,0 +1,70 @@
+package com.example.backend.demo_login.Benchmark;
+
+import com.example.backend.demo_login.Service.JWTService;
+import com.example.backend.demo_login.Service.VerifiedToken;
+import com.example.backend.demo_login.Signing.SigningKeyRing;
+import com.example.backend.demo_login.User.Users;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issuance and verification as run by UserServices and JwtFilter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtBenchmark {
+
+    @Param({"HS256", "RS256", "EdDSA"})
+    public String algorithm;
+
+    @Param({"false", "true"})
+    public boolean fastVerifier;
+
+    private JWTService jwtService;
+    private Users user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        SigningKeyRing signingKeyRing = new SigningKeyRing(null, null);
+        ReflectionTestUtils.setField(signingKeyRing, "secretKey", "bXlKV1RTZWNyZXRLZXkyMDI0Rm9yRGV2ZWxvcG1lbnQ=");
+        ReflectionTestUtils.setField(signingKeyRing, "algorithm", algorithm);
+        ReflectionTestUtils.setField(signingKeyRing, "jwtExpiration", 3600000L);
+        ReflectionTestUtils.setField(signingKeyRing, "rotationInterval", 86400000L);
+        signingKeyRing.init();
+
+        jwtService = new JWTService(signingKeyRing);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 3600000L);
+        ReflectionTestUtils.setField(jwtService, "fastVerifierEnabled", fastVerifier);
+        jwtService.init();
+
+        user = Users.builder()
+                .userId("benchmark:benchmark@example.com")
+                .username("benchmark")
+                .email("benchmark@example.com")
+                .roles(List.of("USER"))
+                .build();
+        token = jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public VerifiedToken verifyToken() {
+        return jwtService.verify(token);
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.backend.demo_login.Benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load test used to compare the servlet and reactive stacks, and platform
+ * against virtual threads on the servlet stack.
+ * <p>
+ * Doubles the number of concurrent connections, each issuing its next request as soon as the
+ * previous one completes, until p99 latency exceeds the target (or more than 1% of requests
+ * fail). The last step that met the target is the concurrency the stack sustains.
+ * Start the app once per stack against the same Mongo and run this against each:
+ * <pre>
+ * java -cp ... LoadComparison --url=http://localhost:9091/api/routines/my --token=JWT --p99-ms=100
+ * </pre>
+ * For the thread modes, start with {@code app.mongo.injected-latency} set (e.g. 20 ms) once with
+ * and once without the {@code virtual} profile; with a slow database the platform-thread run
+ * saturates at roughly {@code server.tomcat.threads.max} concurrent requests.
+ */
+public class LoadComparison {
+
+    private static final int MAX_SAMPLES = 2_000_000;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        URI uri = URI.create(require(options, "url"));
+        String token = options.get("token");
+        long targetP99Millis = Long.parseLong(options.getOrDefault("p99-ms", "100"));
+        int concurrency = Integer.parseInt(options.getOrDefault("start", "16"));
+        int maxConcurrency = Integer.parseInt(options.getOrDefault("max", "4096"));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup-seconds", "5")));
+        Duration step = Duration.ofSeconds(Long.parseLong(options.getOrDefault("step-seconds", "20")));
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        HttpRequest.Builder requestBuilder = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).GET();
+        if (token != null) {
+            requestBuilder.header("Authorization", "Bearer " + token);
+        }
+        HttpRequest request = requestBuilder.build();
+
+        System.out.printf("Target p99 %d ms on %s%n", targetP99Millis, uri);
+        System.out.printf("%12s %12s %10s %10s %10s%n", "connections", "req/s", "p50 ms", "p99 ms", "errors");
+        int sustained = 0;
+        while (concurrency <= maxConcurrency) {
+            run(client, request, concurrency, warmup);
+            StepResult result = run(client, request, concurrency, step);
+            System.out.printf("%12d %12.0f %10.1f %10.1f %10d%n", concurrency,
+                    result.count() / (double) step.toSeconds(), result.percentile(0.50), result.percentile(0.99), result.errors);
+            if (result.percentile(0.99) > targetP99Millis || result.errors.get() > result.count() / 100) {
+                break;
+            }
+            sustained = concurrency;
+            concurrency *= 2;
+        }
+        System.out.printf("Sustained %d concurrent connections at p99 <= %d ms%n", sustained, targetP99Millis);
+    }
+
+    private static StepResult run(HttpClient client, HttpRequest request, int concurrency, Duration duration)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        StepResult result = new StepResult();
+        CountDownLatch done = new CountDownLatch(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            next(client, request, deadline, result, done);
+        }
+        done.await();
+        return result;
+    }
+
+    // Each connection loops: send, record, send again until the deadline
+    private static void next(HttpClient client, HttpRequest request, long deadline, StepResult result, CountDownLatch done) {
+        if (System.nanoTime() >= deadline) {
+            done.countDown();
+            return;
+        }
+        long start = System.nanoTime();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    if (error != null || response.statusCode() >= 500) {
+                        result.errors.incrementAndGet();
+                    } else {
+                        result.record(System.nanoTime() - start);
+                    }
+                    next(client, request, deadline, result, done);
+                });
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        return options;
+    }
+
+    private static String require(Map<String, String> options, String key) {
+        String value = options.get(key);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing --" + key + "=...");
+        }
+        return value;
+    }
+
+    private static final class StepResult {
+        private final long[] latencies = new long[MAX_SAMPLES];
+        private final AtomicInteger samples = new AtomicInteger();
+        private final AtomicLong errors = new AtomicLong();
+
+        void record(long nanos) {
+            int index = samples.getAndIncrement();
+            if (index < latencies.length) {
+                latencies[index] = nanos;
+            }
+        }
+
+        long count() {
+            return samples.get();
+        }
+
+        double percentile(double p) {
+            int n = Math.min(samples.get(), latencies.length);
+            if (n == 0) {
+                return Double.NaN;
+            }
+            long[] sorted = Arrays.copyOf(latencies, n);
+            Arrays.sort(sorted);
+            return sorted[Math.min(n - 1, (int) Math.ceil(p * n) - 1)] / 1_000_000.0;
+        }
+    }
+}
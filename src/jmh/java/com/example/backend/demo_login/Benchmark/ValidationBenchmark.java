@@ -0,0 +1,37 @@
+package com.example.backend.demo_login.Benchmark;
+
+import com.example.backend.demo_login.Utilities.ValidationUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Regex validation run on every registration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ValidationBenchmark {
+
+    @Param({"jane.doe+test@example.co.uk", "not-an-email@", "a@b"})
+    public String email;
+
+    @Param({"Str0ng!Passw0rd", "weakpassword", "Sh0rt!"})
+    public String password;
+
+    @Benchmark
+    public boolean isValidEmail() {
+        return ValidationUtils.isValidEmail(email);
+    }
+
+    @Benchmark
+    public boolean isValidPassword() {
+        return ValidationUtils.isValidPassword(password);
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.backend.demo_login.Auth;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Builder;
 import lombok.Data;
 
@@ -10,6 +11,9 @@ public class ApiResponse<T> {
     private String message;
     private T data;
     private String timestamp;
+    // Opaque cursor for the next page of a paged listing; omitted on the last page and elsewhere
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
 
     public static <T> ApiResponse<T> success(T data, String message) {
         return ApiResponse.<T>builder()
@@ -20,6 +24,12 @@ public class ApiResponse<T> {
                 .build();
     }
 
+    public static <T> ApiResponse<T> success(T data, String message, String nextCursor) {
+        ApiResponse<T> response = success(data, message);
+        response.setNextCursor(nextCursor);
+        return response;
+    }
+
     public static <T> ApiResponse<T> success(T data) {
         return success(data, "Operation successful");
     }
@@ -9,5 +9,6 @@ public class AuthResponse {
     private String token;
     private String tokenType;
     private Long expiresIn;
+    private String refreshToken;
     private UserResponse user;
 }
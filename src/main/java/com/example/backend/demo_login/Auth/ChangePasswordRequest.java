@@ -0,0 +1,9 @@
+package com.example.backend.demo_login.Auth;
+
+import lombok.Data;
+
+@Data
+public class ChangePasswordRequest {
+    private String currentPassword;
+    private String newPassword;
+}
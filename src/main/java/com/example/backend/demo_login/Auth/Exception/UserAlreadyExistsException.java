@@ -1,7 +1,55 @@
 package com.example.backend.demo_login.Auth.Exception;
 
+import com.mongodb.MongoWriteException;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 public class UserAlreadyExistsException extends RuntimeException {
+    // "... index: email dup key: { email: "a@b.c" }"; servers before 4.2 leave the key names out
+    private static final Pattern DUPLICATE_KEY = Pattern.compile("index: (\\S+) dup key: \\{ ?(\\w*)");
+
     public UserAlreadyExistsException(String message) {
         super(message);
     }
+
+    /**
+     * Translate a duplicate key error from an insert into the users collection.
+     */
+    public static UserAlreadyExistsException forDuplicateKey(DuplicateKeyException e) {
+        return forDuplicateKey(e.getCause() instanceof MongoWriteException write
+                ? write.getError().getMessage()
+                : e.getMessage());
+    }
+
+    /**
+     * Translate a Mongo E11000 message by the unique index it violated.
+     */
+    public static UserAlreadyExistsException forDuplicateKey(String duplicateKeyMessage) {
+        String field = violatedField(duplicateKeyMessage);
+        if ("email".equals(field)) {
+            return new UserAlreadyExistsException("Email is already registered");
+        }
+        if ("username".equals(field)) {
+            return new UserAlreadyExistsException("Username is already taken");
+        }
+        return new UserAlreadyExistsException("User already exists");
+    }
+
+    /**
+     * Leading key field of the violated index: taken from the index name ("email", "email_1"),
+     * or from the key document when the name is not one of ours. Null if the message has neither.
+     */
+    static String violatedField(String duplicateKeyMessage) {
+        Matcher matcher = DUPLICATE_KEY.matcher(String.valueOf(duplicateKeyMessage));
+        if (!matcher.find()) {
+            return null;
+        }
+        String index = matcher.group(1).replaceFirst("_-?1$", "");
+        if ("email".equals(index) || "username".equals(index)) {
+            return index;
+        }
+        return matcher.group(2).isEmpty() ? null : matcher.group(2);
+    }
 }
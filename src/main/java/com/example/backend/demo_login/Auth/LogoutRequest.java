@@ -0,0 +1,9 @@
+package com.example.backend.demo_login.Auth;
+
+import lombok.Data;
+
+@Data
+public class LogoutRequest {
+    // Refresh token of the session being ended; without it every session of the user is ended
+    private String refreshToken;
+}
@@ -0,0 +1,36 @@
+package com.example.backend.demo_login.Auth.Refresh;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "RefreshToken")
+public class RefreshToken {
+    // SHA-256 of the opaque token; the raw value is only ever held by the client
+    @Id
+    private String id;
+
+    @Indexed
+    private String username;
+
+    // All tokens produced by rotating one login share a family, so reuse can revoke the whole chain
+    @Indexed
+    private String familyId;
+
+    private boolean used;
+
+    @Indexed(expireAfterSeconds = 0)
+    private Date expiresAt;
+
+    private Date createdAt;
+}
@@ -0,0 +1,11 @@
+package com.example.backend.demo_login.Auth.Refresh;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RefreshTokenRepository extends MongoRepository<RefreshToken, String> {
+    long deleteByFamilyId(String familyId);
+
+    long deleteByUsername(String username);
+}
@@ -0,0 +1,155 @@
+package com.example.backend.demo_login.Auth.Refresh;
+
+import com.example.backend.demo_login.Auth.Exception.CustomAuthenticationException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Opaque refresh tokens stored hashed in Mongo. Every refresh rotates the token;
+ * presenting an already-rotated token is treated as theft and revokes the whole family.
+ * Logout revokes the family of the session, a password change every family of the user.
+ */
+@Slf4j
+@Service
+public class RefreshTokenService {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final MongoTemplate mongoTemplate;
+    private final SecureRandom secureRandom = new SecureRandom();
+    private volatile boolean indexEnsured;
+
+    @Value("${jwt.refresh-expiration:1209600000}") // 14 days default
+    private long refreshExpiration;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository, MongoTemplate mongoTemplate) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Issue a refresh token starting a new family (i.e. after a password login).
+     */
+    public String issue(String username) {
+        return issue(username, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Consume a refresh token and issue its successor in the same family. Each token can be used once.
+     */
+    public Rotation rotate(String rawToken) {
+        if (rawToken == null || rawToken.isBlank()) {
+            throw new CustomAuthenticationException("Refresh token is required");
+        }
+        String hash = hash(rawToken);
+        Date now = new Date();
+
+        // Atomically claim the token so two concurrent refreshes cannot both succeed
+        RefreshToken claimed = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(hash).and("used").is(false).and("expiresAt").gt(now)),
+                Update.update("used", true),
+                FindAndModifyOptions.options().returnNew(false),
+                RefreshToken.class);
+
+        if (claimed == null) {
+            refreshTokenRepository.findById(hash)
+                    .filter(RefreshToken::isUsed)
+                    .ifPresent(reused -> {
+                        long revoked = refreshTokenRepository.deleteByFamilyId(reused.getFamilyId());
+                        log.warn("Refresh token reuse detected for user: {} - revoked {} tokens in family",
+                                reused.getUsername(), revoked);
+                    });
+            throw new CustomAuthenticationException("Invalid or expired refresh token");
+        }
+
+        String next = issue(claimed.getUsername(), claimed.getFamilyId());
+        return new Rotation(claimed.getUsername(), next);
+    }
+
+    /**
+     * Revoke the family of this refresh token, if it belongs to the user. Returns the tokens removed.
+     */
+    public long revokeFamily(String rawToken, String username) {
+        if (rawToken == null || rawToken.isBlank()) {
+            return 0;
+        }
+        return refreshTokenRepository.findById(hash(rawToken))
+                .filter(token -> token.getUsername().equals(username))
+                .map(token -> refreshTokenRepository.deleteByFamilyId(token.getFamilyId()))
+                .orElse(0L);
+    }
+
+    /**
+     * Revoke every refresh token of the user, ending all of their sessions. Returns the tokens removed.
+     */
+    public long revokeAll(String username) {
+        return refreshTokenRepository.deleteByUsername(username);
+    }
+
+    private String issue(String username, String familyId) {
+        ensureIndexes();
+        byte[] bytes = new byte[32];
+        secureRandom.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        Date now = new Date();
+        refreshTokenRepository.save(RefreshToken.builder()
+                .id(hash(rawToken))
+                .username(username)
+                .familyId(familyId)
+                .used(false)
+                .createdAt(now)
+                .expiresAt(new Date(now.getTime() + refreshExpiration))
+                .build());
+        return rawToken;
+    }
+
+    // auto-index-creation is off in dev/prod, so make sure the TTL index and the indexes behind
+    // family and per-user revocation exist before the first token is stored
+    private void ensureIndexes() {
+        if (indexEnsured) {
+            return;
+        }
+        IndexOperations indexOps = mongoTemplate.indexOps(RefreshToken.class);
+        indexOps.ensureIndex(new Index().on("expiresAt", Sort.Direction.ASC).expire(Duration.ZERO));
+        indexOps.ensureIndex(new Index().on("familyId", Sort.Direction.ASC).named("familyId"));
+        indexOps.ensureIndex(new Index().on("username", Sort.Direction.ASC).named("username"));
+        indexEnsured = true;
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(sha256.digest(rawToken.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Rotation {
+        private final String username;
+        private final String refreshToken;
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.backend.demo_login.Auth;
+
+import lombok.Data;
+
+@Data
+public class RefreshRequest {
+    private String refreshToken;
+}
@@ -0,0 +1,24 @@
+package com.example.backend.demo_login.Auth;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Outcome of one NDJSON record in a bulk user import.
+ */
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserImportResult {
+    public static final String CREATED = "CREATED";
+    public static final String INVALID = "INVALID";
+    public static final String DUPLICATE = "DUPLICATE";
+    public static final String FAILED = "FAILED";
+
+    // 1-based line number in the request body
+    private long line;
+    private String username;
+    private String status;
+    private String message;
+}
@@ -0,0 +1,46 @@
+package com.example.backend.demo_login.Config;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Benchmarking aid: delays every Mongo command by {@code app.mongo.injected-latency} ms to
+ * simulate a slow database. The sync driver calls command listeners on the thread running the
+ * query, so the sleep holds that request thread exactly as a slow round trip would.
+ * Never set this outside load tests. Servlet stack only; sleeping on a Netty event loop would
+ * stall every connection it serves.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "app.mongo.injected-latency")
+public class InjectedLatencyConfig {
+
+    @Value("${app.mongo.injected-latency}")
+    private long injectedLatencyMillis;
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer injectedLatencyCustomizer() {
+        if (injectedLatencyMillis <= 0) {
+            return builder -> { };
+        }
+        log.warn("Injecting {} ms of latency into every Mongo command", injectedLatencyMillis);
+        return builder -> builder.addCommandListener(new CommandListener() {
+            @Override
+            public void commandStarted(CommandStartedEvent event) {
+                try {
+                    Thread.sleep(injectedLatencyMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+    }
+}
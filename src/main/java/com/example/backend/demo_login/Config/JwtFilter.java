@@ -1,28 +1,39 @@
 package com.example.backend.demo_login.Config;
 
+import com.example.backend.demo_login.Revocation.TokenRevocationService;
 import com.example.backend.demo_login.Service.JWTService;
-import com.example.backend.demo_login.Service.UserService;
+import com.example.backend.demo_login.Service.VerifiedToken;
+import com.example.backend.demo_login.Service.VerifiedTokenCache;
 import com.mongodb.lang.NonNull;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.ApplicationContext;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 @Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class JwtFilter extends OncePerRequestFilter {
 
     @Autowired
     private JWTService jwtService;
 
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
     @Autowired
     ApplicationContext context; // This is used to get the bean of JWTService
 
@@ -31,16 +42,22 @@ public class JwtFilter extends OncePerRequestFilter {
                                   @NonNull HttpServletResponse response, 
                                   @NonNull FilterChain filterChain) throws ServletException, IOException {
      String authheader = request.getHeader("Authorization");
-     String token = null;
+     VerifiedToken verifiedToken = null;
      String username = null;
      if(authheader != null && authheader.startsWith("Bearer ")){
-         token = authheader.substring(7);
-         username = jwtService.extractUsername(token);
+         // Single signature verification (or cache hit); subject and expiry are reused below
+         verifiedToken = verifiedTokenCache.verify(authheader.substring(7));
+         username = verifiedToken.getSubject();
+     }
+
+     // Revoked tokens are left unauthenticated; the entry point answers 401
+     if (verifiedToken != null && tokenRevocationService.isRevoked(verifiedToken.getId())) {
+         username = null;
      }
 
      if (username != null && SecurityContextHolder.getContext().getAuthentication() == null){
-         UserDetails userDetails = context.getBean(UserService.class).loadUserByUsername(username);
-            if(jwtService.validateToken(token, userDetails)){
+         UserDetails userDetails = loadPrincipal(verifiedToken);
+            if(jwtService.validateToken(verifiedToken, userDetails)){
                 UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 usernamePasswordAuthenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
@@ -49,4 +66,10 @@ public class JwtFilter extends OncePerRequestFilter {
      }
      filterChain.doFilter(request, response);
     }
+
+    // Stateless principal mode skips the Mongo lookup when the token claims are fresh enough
+    private UserDetails loadPrincipal(VerifiedToken verifiedToken) {
+        return jwtService.principalFromClaims(verifiedToken)
+                .orElseGet(() -> context.getBean(UserDetailsService.class).loadUserByUsername(verifiedToken.getSubject()));
+    }
 }
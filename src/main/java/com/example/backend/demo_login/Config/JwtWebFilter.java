@@ -0,0 +1,79 @@
+package com.example.backend.demo_login.Config;
+
+import com.example.backend.demo_login.Auth.Exception.InvalidTokenException;
+import com.example.backend.demo_login.Revocation.TokenRevocationService;
+import com.example.backend.demo_login.Service.JWTService;
+import com.example.backend.demo_login.Service.VerifiedToken;
+import com.example.backend.demo_login.Service.VerifiedTokenCache;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
+
+/**
+ * WebFlux equivalent of {@link JwtFilter}: same token cache, revocation check and stateless
+ * principal shortcut, with the user lookup done through a non-blocking repository. Only cache
+ * hits are handled on the event loop; misses are verified on the bounded elastic scheduler.
+ * Not a bean on its own, so it only runs inside the security filter chain.
+ */
+public class JwtWebFilter implements WebFilter {
+
+    private final JWTService jwtService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenRevocationService tokenRevocationService;
+    private final ReactiveUserDetailsService userDetailsService;
+
+    public JwtWebFilter(JWTService jwtService,
+                        VerifiedTokenCache verifiedTokenCache,
+                        TokenRevocationService tokenRevocationService,
+                        ReactiveUserDetailsService userDetailsService) {
+        this.jwtService = jwtService;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.tokenRevocationService = tokenRevocationService;
+        this.userDetailsService = userDetailsService;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return chain.filter(exchange);
+        }
+
+        String token = authHeader.substring(7);
+        VerifiedToken cached = verifiedTokenCache.getIfPresent(token);
+        return (cached != null ? Mono.just(cached) : verifyOffEventLoop(token))
+                .filter(verifiedToken -> verifiedToken.getSubject() != null
+                        && !tokenRevocationService.isRevoked(verifiedToken.getId()))
+                .flatMap(verifiedToken -> loadPrincipal(verifiedToken)
+                        .filter(userDetails -> jwtService.validateToken(verifiedToken, userDetails)))
+                .map(userDetails -> ReactiveSecurityContextHolder.withAuthentication(
+                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities())))
+                .defaultIfEmpty(Context.empty())
+                .flatMap(context -> chain.filter(exchange).contextWrite(context));
+    }
+
+    /**
+     * A cache miss verifies the signature, and a token with a kid this node has not seen yet makes the
+     * key ring reload published keys from Mongo with a blocking call. Keep both off the event loop.
+     * Invalid tokens complete empty and are left unauthenticated; the entry point answers 401.
+     */
+    private Mono<VerifiedToken> verifyOffEventLoop(String token) {
+        return Mono.fromCallable(() -> verifiedTokenCache.verify(token))
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(InvalidTokenException.class, e -> Mono.empty());
+    }
+
+    // Stateless principal mode skips the Mongo lookup when the token claims are fresh enough
+    private Mono<UserDetails> loadPrincipal(VerifiedToken verifiedToken) {
+        return Mono.justOrEmpty(jwtService.principalFromClaims(verifiedToken))
+                .switchIfEmpty(Mono.defer(() -> userDetailsService.findByUsername(verifiedToken.getSubject())));
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.backend.demo_login.Config;
+
+import com.example.backend.demo_login.Revocation.TokenRevocationService;
+import com.example.backend.demo_login.Service.JWTService;
+import com.example.backend.demo_login.Service.VerifiedTokenCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsConfigurationSource;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Security for the reactive profile. Mirrors {@link SecurityConfig}: stateless JWT
+ * authentication, the same public and admin paths, and the same JSON 401/403 bodies.
+ * Tokens are issued by the servlet stack; any node can verify them.
+ */
+@Slf4j
+@Configuration
+@EnableWebFluxSecurity
+@EnableReactiveMethodSecurity
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSecurityConfig {
+
+    private static final String[] PUBLIC_ENDPOINTS = {
+        "/actuator/health",
+        "/.well-known/jwks.json"
+    };
+
+    private static final String[] ADMIN_ENDPOINTS = {
+        "/actuator/indexes",
+        "/actuator/indexes/**",
+        "/api/admin/**"
+    };
+
+    @Value("${app.cors.allowed-origins:http://localhost:3000,http://localhost:58566}")
+    private String[] allowedOrigins;
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http,
+                                                         JWTService jwtService,
+                                                         VerifiedTokenCache verifiedTokenCache,
+                                                         TokenRevocationService tokenRevocationService,
+                                                         ReactiveUserDetailsService userDetailsService) {
+        JwtWebFilter jwtWebFilter = new JwtWebFilter(jwtService, verifiedTokenCache, tokenRevocationService, userDetailsService);
+        return http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .logout(ServerHttpSecurity.LogoutSpec::disable)
+                .cors(cors -> cors.configurationSource(corsConfigurationSource()))
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .authorizeExchange(exchange -> exchange
+                        .pathMatchers(PUBLIC_ENDPOINTS).permitAll()
+                        .pathMatchers(ADMIN_ENDPOINTS).hasRole("ADMIN")
+                        .pathMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                        .anyExchange().authenticated()
+                )
+                .addFilterAt(jwtWebFilter, SecurityWebFiltersOrder.AUTHENTICATION)
+                .exceptionHandling(ex -> ex
+                        .authenticationEntryPoint((exchange, e) -> {
+                            log.warn("Unauthorized access attempt: {}", e.getMessage());
+                            return writeJson(exchange, HttpStatus.UNAUTHORIZED,
+                                    "{\"error\":\"Unauthorized\",\"message\":\"Access token is missing or invalid\"}");
+                        })
+                        .accessDeniedHandler((exchange, e) -> {
+                            log.warn("Access denied: {}", e.getMessage());
+                            return writeJson(exchange, HttpStatus.FORBIDDEN,
+                                    "{\"error\":\"Forbidden\",\"message\":\"Insufficient privileges\"}");
+                        })
+                )
+                .build();
+    }
+
+    private CorsConfigurationSource corsConfigurationSource() {
+        CorsConfiguration configuration = new CorsConfiguration();
+        configuration.setAllowedOrigins(Arrays.asList(allowedOrigins));
+        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
+        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "X-Requested-With", "Accept", "Origin"));
+        configuration.setExposedHeaders(Arrays.asList("Authorization"));
+        configuration.setAllowCredentials(true);
+        configuration.setMaxAge(3600L);
+
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", configuration);
+        return source;
+    }
+
+    private static Mono<Void> writeJson(ServerWebExchange exchange, HttpStatus status, String body) {
+        exchange.getResponse().setStatusCode(status);
+        exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        DataBuffer buffer = exchange.getResponse().bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8));
+        return exchange.getResponse().writeWith(Mono.just(buffer));
+    }
+}
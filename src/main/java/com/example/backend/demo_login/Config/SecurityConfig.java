@@ -1,7 +1,12 @@
 package com.example.backend.demo_login.Config;
 
+import com.example.backend.demo_login.Service.CalibratedPasswordEncoderFactory;
+import com.example.backend.demo_login.Service.OffloadingPasswordEncoder;
+import com.example.backend.demo_login.Service.PasswordHashingService;
+import com.example.backend.demo_login.Service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -16,7 +21,6 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -36,22 +40,34 @@ import static org.springframework.security.config.Customizer.withDefaults;
 @EnableWebSecurity
 @EnableMethodSecurity(prePostEnabled = true)
 @RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class SecurityConfig {
 
     private final UserDetailsService userDetailsService;
     private final JwtFilter jwtFilter;
+    private final PasswordHashingService passwordHashingService;
+    private final CalibratedPasswordEncoderFactory passwordEncoderFactory;
+    private final UserService userService;
 
     // Define public endpoints that don't require authentication
     private static final String[] PUBLIC_ENDPOINTS = {
         "/api/auth/register",
         "/api/auth/login", 
+        "/api/auth/refresh",
         "/api/auth/health",
         "/actuator/health",
+        "/.well-known/jwks.json",
         "/v3/api-docs/**",
         "/swagger-ui/**",
         "/swagger-ui.html"
     };
 
+    private static final String[] ADMIN_ENDPOINTS = {
+        "/actuator/indexes",
+        "/actuator/indexes/**",
+        "/api/admin/**"
+    };
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         return http
@@ -59,6 +75,7 @@ public class SecurityConfig {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(PUBLIC_ENDPOINTS).permitAll()
+                        .requestMatchers(ADMIN_ENDPOINTS).hasRole("ADMIN")
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll() // Allow CORS preflight
                         .anyRequest().authenticated()
                 )
@@ -122,7 +139,8 @@ public class SecurityConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12);
+        // Hashing runs on a bounded pool so a login burst cannot starve request threads
+        return new OffloadingPasswordEncoder(passwordEncoderFactory.create(), passwordHashingService);
     }
 
     @Bean
@@ -130,6 +148,8 @@ public class SecurityConfig {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        // Rehash outdated hashes (old cost or algorithm) after a successful login
+        authProvider.setUserDetailsPasswordService(userService);
         return authProvider;
     }
 
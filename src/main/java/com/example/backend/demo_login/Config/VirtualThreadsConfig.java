@@ -0,0 +1,40 @@
+package com.example.backend.demo_login.Config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+/**
+ * Reports the thread mode the app started in. Virtual threads are switched on with
+ * {@code spring.threads.virtual.enabled=true} (the {@code virtual} profile); Spring Boot then runs
+ * Tomcat request handling, the application task executor and {@code @Scheduled} jobs on them.
+ * <p>
+ * Boot only honours the property on Java 21 or later. The build targets 17, so on an older
+ * runtime the flag is ignored and we say so instead of silently running on platform threads.
+ * The password hashing pools stay on platform threads either way: they are CPU bound and
+ * deliberately sized to the core count.
+ */
+@Slf4j
+@Configuration
+public class VirtualThreadsConfig {
+
+    private static final int MIN_VIRTUAL_THREADS_RUNTIME = 21;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reportThreadMode() {
+        int runtime = Runtime.version().feature();
+        if (!virtualThreadsEnabled) {
+            log.info("Request handling runs on platform threads");
+        } else if (runtime < MIN_VIRTUAL_THREADS_RUNTIME) {
+            log.warn("spring.threads.virtual.enabled is set but Java {} has no virtual threads; "
+                    + "running on platform threads. Use a Java {}+ runtime.", runtime, MIN_VIRTUAL_THREADS_RUNTIME);
+        } else {
+            log.info("Request handling, task executor and scheduler run on virtual threads (Java {})", runtime);
+        }
+    }
+}
@@ -2,8 +2,10 @@ package com.example.backend.demo_login;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class DemoLoginApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,33 @@
+package com.example.backend.demo_login.Indexing;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * GET /actuator/indexes reports missing, undeclared and unused indexes.
+ * POST /actuator/indexes creates the missing ones. Admin only.
+ */
+@Component
+@Endpoint(id = "indexes")
+public class IndexEndpoint {
+
+    private final IndexManager indexManager;
+
+    public IndexEndpoint(IndexManager indexManager) {
+        this.indexManager = indexManager;
+    }
+
+    @ReadOperation
+    public List<IndexReport> report() {
+        return indexManager.report();
+    }
+
+    @WriteOperation
+    public List<String> ensure() {
+        return indexManager.ensureIndexes();
+    }
+}
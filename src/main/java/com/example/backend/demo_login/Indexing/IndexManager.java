@@ -0,0 +1,322 @@
+package com.example.backend.demo_login.Indexing;
+
+import com.example.backend.demo_login.Auth.Exception.ServiceBusyException;
+import com.example.backend.demo_login.Auth.Refresh.RefreshToken;
+import com.example.backend.demo_login.Revocation.RevokedToken;
+import com.example.backend.demo_login.Routine.Routine;
+import com.example.backend.demo_login.Shop.Shop;
+import com.example.backend.demo_login.User.Users;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Declares the indexes each repository query needs and creates them, since
+ * auto-index-creation is off in dev and prod.
+ * <p>
+ * Runs once in the background after startup and on demand through the {@code indexes}
+ * actuator endpoint. Creation is idempotent: an index whose key pattern already exists,
+ * under any name, is left alone. If that index differs from the declaration in its unique,
+ * partial filter or TTL options it is reported as drifted and logged, but not dropped or
+ * rebuilt; Mongo would refuse the declared one next to it anyway. The unique user indexes
+ * are also a blocking precondition for creating users, see {@link #requireUniqueUserIndexes()}.
+ * <p>
+ * {@code deletedBy: null} is part of the key pattern rather than a partial filter because
+ * Mongo cannot use null equality (which also matches a missing field) in a partial filter.
+ */
+@Slf4j
+@Service
+public class IndexManager {
+
+    private static final String ID_INDEX = "_id_";
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean ensureOnStartup;
+    private final Map<Class<?>, List<Index>> declaredIndexes = declareIndexes();
+    // Not a monitor: the actuator endpoint may call in on a virtual thread
+    private final ReentrantLock ensureLock = new ReentrantLock();
+    private volatile boolean userIndexesVerified;
+
+    public IndexManager(MongoTemplate mongoTemplate,
+                        @Value("${app.indexes.ensure-on-startup:true}") boolean ensureOnStartup) {
+        this.mongoTemplate = mongoTemplate;
+        this.ensureOnStartup = ensureOnStartup;
+    }
+
+    private static Map<Class<?>, List<Index>> declareIndexes() {
+        Map<Class<?>, List<Index>> indexes = new LinkedHashMap<>();
+        indexes.put(Users.class, List.of(
+                // UserService routes logins to one of these two
+                new Index().on("username", Sort.Direction.ASC).unique().named("username"),
+                new Index().on("email", Sort.Direction.ASC).unique().named("email")));
+        indexes.put(Routine.class, List.of(
+                // findByUserIdAndNotDeleted and its keyset page (trailing _id is the page order)
+                new Index().on("userId", Sort.Direction.ASC)
+                        .on("deletedBy", Sort.Direction.ASC)
+                        .on("_id", Sort.Direction.ASC)
+                        .named("userId_deletedBy__id"),
+                // findByUserIdAndRoutineStatusAndNotDeleted and its keyset page
+                new Index().on("userId", Sort.Direction.ASC)
+                        .on("routineStatus", Sort.Direction.ASC)
+                        .on("deletedBy", Sort.Direction.ASC)
+                        .on("_id", Sort.Direction.ASC)
+                        .named("userId_routineStatus_deletedBy__id"),
+                // findAllNotDeleted and its keyset page
+                new Index().on("deletedBy", Sort.Direction.ASC)
+                        .on("_id", Sort.Direction.ASC)
+                        .named("deletedBy__id"),
+                // findByRoutineStatusAndNotDeleted and its keyset page
+                new Index().on("deletedBy", Sort.Direction.ASC)
+                        .on("routineStatus", Sort.Direction.ASC)
+                        .on("_id", Sort.Direction.ASC)
+                        .named("deletedBy_routineStatus__id"),
+                // existsBy/findByRoutineIdAndUserIdAndNotDeleted
+                new Index().on("routineId", Sort.Direction.ASC)
+                        .on("userId", Sort.Direction.ASC)
+                        .partial(PartialIndexFilter.of(Criteria.where("routineId").exists(true)))
+                        .named("routineId_userId")));
+        indexes.put(RefreshToken.class, List.of(
+                // deleteByFamilyId: reuse detection and logout revoke a whole family
+                new Index().on("familyId", Sort.Direction.ASC).named("familyId"),
+                // deleteByUsername: logout everywhere and password change
+                new Index().on("username", Sort.Direction.ASC).named("username")));
+        indexes.put(RevokedToken.class, List.of(
+                // Expiry: a revocation is dropped once its token could no longer be used
+                new Index().on("expiresAt", Sort.Direction.ASC).expire(Duration.ZERO).named("expiresAt"),
+                // findByRevokedAtAfter: every node's revocation sync
+                new Index().on("revokedAt", Sort.Direction.ASC).named("revokedAt")));
+        indexes.put(Shop.class, List.of(
+                // findByUserId, getShopByUserId
+                new Index().on("userId", Sort.Direction.ASC)
+                        .partial(PartialIndexFilter.of(Criteria.where("userId").exists(true)))
+                        .named("userId")));
+        return indexes;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexesOnStartup() {
+        if (!ensureOnStartup) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                List<String> created = ensureIndexes();
+                log.info("Index check complete, created {} index(es): {}", created.size(), created);
+            } catch (Exception e) {
+                log.warn("Index check failed, run it again from /actuator/indexes: {}", e.getMessage());
+            }
+        }, "index-manager");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Create every declared index that is missing. Returns the created indexes as collection.name.
+     */
+    public List<String> ensureIndexes() {
+        ensureLock.lock();
+        try {
+            return ensureIndexesLocked();
+        } finally {
+            ensureLock.unlock();
+        }
+    }
+
+    private List<String> ensureIndexesLocked() {
+        List<String> created = new ArrayList<>();
+        declaredIndexes.forEach((entity, indexes) -> ensureLocked(entity, indexes, created));
+        return created;
+    }
+
+    private void ensureLocked(Class<?> entity, List<Index> indexes, List<String> created) {
+        String collection = mongoTemplate.getCollectionName(entity);
+        List<IndexInfo> existing = mongoTemplate.indexOps(entity).getIndexInfo();
+        for (Index index : indexes) {
+            IndexInfo match = findExisting(index, existing);
+            if (match == null) {
+                mongoTemplate.indexOps(entity).ensureIndex(index.background());
+                created.add(collection + "." + nameOf(index));
+                log.info("Created index {} on {}", nameOf(index), collection);
+            } else {
+                List<String> drift = drift(index, match);
+                if (!drift.isEmpty()) {
+                    log.warn("Index {} on {} differs from its declaration: {}", match.getName(), collection, drift);
+                }
+            }
+        }
+    }
+
+    /**
+     * Registration and the user import rely on the unique username and email indexes to reject
+     * duplicates. Creates them if needed, blocking the caller, and refuses with a 503 while they
+     * cannot be confirmed. Checked once per process; later calls are a volatile read.
+     */
+    public void requireUniqueUserIndexes() {
+        if (userIndexesVerified) {
+            return;
+        }
+        ensureLock.lock();
+        try {
+            if (userIndexesVerified) {
+                return;
+            }
+            List<Index> indexes = declaredIndexes.get(Users.class);
+            List<String> created = new ArrayList<>();
+            ensureLocked(Users.class, indexes, created);
+            List<IndexInfo> existing = mongoTemplate.indexOps(Users.class).getIndexInfo();
+            for (Index index : indexes) {
+                IndexInfo match = findExisting(index, existing);
+                if (match == null) {
+                    throw new IllegalStateException("unique index " + nameOf(index) + " is missing");
+                }
+                List<String> drift = drift(index, match);
+                if (!drift.isEmpty()) {
+                    throw new IllegalStateException("index " + match.getName() + " differs from its declaration: " + drift);
+                }
+            }
+            userIndexesVerified = true;
+            if (!created.isEmpty()) {
+                log.info("Created unique user indexes before registration: {}", created);
+            }
+        } catch (RuntimeException e) {
+            log.error("Refusing to create users without unique username/email indexes: {}", e.getMessage());
+            throw new ServiceBusyException("Registration is temporarily unavailable", 60);
+        } finally {
+            ensureLock.unlock();
+        }
+    }
+
+    /**
+     * Compare declared and existing indexes per collection, including index usage from $indexStats.
+     */
+    public List<IndexReport> report() {
+        List<IndexReport> reports = new ArrayList<>();
+        declaredIndexes.forEach((entity, indexes) -> {
+            String collection = mongoTemplate.getCollectionName(entity);
+            try {
+                reports.add(report(entity, collection, indexes));
+            } catch (Exception e) {
+                reports.add(IndexReport.builder().collection(collection).error(e.getMessage()).build());
+            }
+        });
+        return reports;
+    }
+
+    private IndexReport report(Class<?> entity, String collection, List<Index> indexes) {
+        List<IndexInfo> existing = mongoTemplate.indexOps(entity).getIndexInfo();
+        List<String> present = new ArrayList<>();
+        List<String> missing = new ArrayList<>();
+        List<String> drifted = new ArrayList<>();
+        List<String> matchedNames = new ArrayList<>();
+        for (Index index : indexes) {
+            IndexInfo match = findExisting(index, existing);
+            if (match == null) {
+                missing.add(nameOf(index));
+                continue;
+            }
+            List<String> drift = drift(index, match);
+            if (drift.isEmpty()) {
+                present.add(nameOf(index));
+            } else {
+                drifted.add(nameOf(index) + " (" + String.join(", ", drift) + ")");
+            }
+            matchedNames.add(match.getName());
+        }
+        List<String> undeclared = existing.stream()
+                .map(IndexInfo::getName)
+                .filter(name -> !ID_INDEX.equals(name) && !matchedNames.contains(name))
+                .toList();
+
+        List<String> unused = new ArrayList<>();
+        for (Document stats : mongoTemplate.getCollection(collection)
+                .aggregate(List.of(new Document("$indexStats", new Document())))) {
+            Document accesses = stats.get("accesses", Document.class);
+            String name = stats.getString("name");
+            if (!ID_INDEX.equals(name) && accesses != null && ((Number) accesses.get("ops")).longValue() == 0) {
+                unused.add(name);
+            }
+        }
+
+        return IndexReport.builder()
+                .collection(collection)
+                .present(present)
+                .missing(missing)
+                .drifted(drifted)
+                .undeclared(undeclared)
+                .unused(unused)
+                .build();
+    }
+
+    // Existing index with the same key pattern, whatever it is called
+    private static IndexInfo findExisting(Index index, List<IndexInfo> existing) {
+        String keys = keyPattern(index.getIndexKeys());
+        return existing.stream()
+                .filter(info -> keys.equals(keyPattern(info)))
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Options of an existing index that differ from its declaration: unique, partial filter and
+     * TTL. Empty when they match.
+     */
+    static List<String> drift(Index index, IndexInfo existing) {
+        Document options = index.getIndexOptions();
+        List<String> drift = new ArrayList<>();
+        boolean unique = Boolean.TRUE.equals(options.get("unique"));
+        if (unique != existing.isUnique()) {
+            drift.add("unique " + existing.isUnique() + ", declared " + unique);
+        }
+        Document partial = options.get("partialFilterExpression", Document.class);
+        Document existingPartial = existing.getPartialFilterExpression() == null ? null
+                : Document.parse(existing.getPartialFilterExpression());
+        if (!Objects.equals(partial, existingPartial)) {
+            drift.add("partial filter " + json(existingPartial) + ", declared " + json(partial));
+        }
+        Long ttl = options.get("expireAfterSeconds") == null ? null
+                : ((Number) options.get("expireAfterSeconds")).longValue();
+        Long existingTtl = existing.getExpireAfter().map(Duration::getSeconds).orElse(null);
+        if (!Objects.equals(ttl, existingTtl)) {
+            drift.add("expireAfterSeconds " + existingTtl + ", declared " + ttl);
+        }
+        return drift;
+    }
+
+    private static String json(Document document) {
+        return document == null ? "none" : document.toJson();
+    }
+
+    private static String keyPattern(Document keys) {
+        return keys.entrySet().stream()
+                .map(entry -> entry.getKey() + ":" + ((Number) entry.getValue()).intValue())
+                .collect(Collectors.joining(","));
+    }
+
+    private static String keyPattern(IndexInfo info) {
+        return info.getIndexFields().stream()
+                .map(field -> field.getKey() + ":" + (field.getDirection() == Sort.Direction.DESC ? -1 : 1))
+                .collect(Collectors.joining(","));
+    }
+
+    private static String nameOf(Index index) {
+        return index.getIndexOptions().getString("name");
+    }
+}
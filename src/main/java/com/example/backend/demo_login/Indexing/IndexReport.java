@@ -0,0 +1,33 @@
+package com.example.backend.demo_login.Indexing;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * State of one collection's indexes compared with what {@link IndexManager} declares.
+ */
+@Data
+@Builder
+public class IndexReport {
+    private String collection;
+
+    // Declared indexes that exist with the declared options (possibly under another name)
+    private List<String> present;
+
+    // Declared indexes that do not exist yet
+    private List<String> missing;
+
+    // Declared indexes whose key pattern exists with other unique, partial filter or TTL options
+    private List<String> drifted;
+
+    // Existing indexes that are not declared, other than _id_
+    private List<String> undeclared;
+
+    // Existing indexes with no recorded use since the server last started, other than _id_
+    private List<String> unused;
+
+    // Set when the collection could not be inspected
+    private String error;
+}
@@ -0,0 +1,74 @@
+package com.example.backend.demo_login.Revocation;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hashed timing wheel holding revoked jtis until their token expiry.
+ * Each slot covers one tick; advancing the wheel only scans the slots that
+ * elapsed, so expiring entries costs O(expired) rather than O(all revocations).
+ * Entries further away than one rotation simply survive extra passes of their slot.
+ */
+class RevocationTimingWheel {
+
+    private final long tickMillis;
+    private final Set<String>[] slots;
+    private final Map<String, Long> expiries = new ConcurrentHashMap<>();
+    private long lastTick;
+
+    @SuppressWarnings("unchecked")
+    RevocationTimingWheel(long tickMillis, int slotCount, long now) {
+        this.tickMillis = tickMillis;
+        this.slots = new Set[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = ConcurrentHashMap.newKeySet();
+        }
+        this.lastTick = now / tickMillis;
+    }
+
+    void add(String jti, long expiresAtMillis) {
+        if (expiries.putIfAbsent(jti, expiresAtMillis) == null) {
+            slots[slotFor(expiresAtMillis / tickMillis)].add(jti);
+        }
+    }
+
+    boolean contains(String jti, long now) {
+        Long expiresAt = expiries.get(jti);
+        return expiresAt != null && expiresAt > now;
+    }
+
+    /**
+     * Drop every entry whose expiry has passed. Returns the number of entries removed.
+     */
+    synchronized int advance(long now) {
+        long currentTick = now / tickMillis;
+        long ticks = Math.min(currentTick - lastTick, slots.length - 1L);
+        int removed = 0;
+        for (long tick = currentTick - ticks; tick <= currentTick; tick++) {
+            Set<String> slot = slots[slotFor(tick)];
+            for (String jti : slot) {
+                Long expiresAt = expiries.get(jti);
+                if (expiresAt == null || expiresAt <= now) {
+                    slot.remove(jti);
+                    expiries.remove(jti);
+                    removed++;
+                }
+            }
+        }
+        lastTick = currentTick;
+        return removed;
+    }
+
+    Set<String> liveEntries() {
+        return expiries.keySet();
+    }
+
+    int size() {
+        return expiries.size();
+    }
+
+    private int slotFor(long tick) {
+        return (int) Math.floorMod(tick, (long) slots.length);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.backend.demo_login.Revocation;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "RevokedToken")
+public class RevokedToken {
+    // The token's jti claim
+    @Id
+    private String id;
+
+    private String username;
+
+    // TTL index: Mongo removes the revocation once the token could no longer be used anyway
+    @Indexed(expireAfterSeconds = 0)
+    private Date expiresAt;
+
+    @Indexed
+    private Date revokedAt;
+}
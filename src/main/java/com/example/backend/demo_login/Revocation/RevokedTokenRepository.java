@@ -0,0 +1,12 @@
+package com.example.backend.demo_login.Revocation;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends MongoRepository<RevokedToken, String> {
+    List<RevokedToken> findByRevokedAtAfter(Date revokedAt);
+}
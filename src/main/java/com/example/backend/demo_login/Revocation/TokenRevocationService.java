@@ -0,0 +1,145 @@
+package com.example.backend.demo_login.Revocation;
+
+import com.example.backend.demo_login.Service.VerifiedToken;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Token revocation keyed by jti. Revocations are persisted in Mongo (TTL-indexed on the
+ * token expiry) and mirrored on every node in a Bloom filter plus a timing-wheel expiry set,
+ * so checking a token in JwtFilter never needs a database round trip.
+ */
+@Slf4j
+@Service
+public class TokenRevocationService {
+
+    private static final long TICK_MILLIS = 60_000;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final MongoTemplate mongoTemplate;
+    private final RevocationTimingWheel timingWheel;
+    private final int expectedRevocations;
+    private final double falsePositiveRate;
+    private final long syncOverlapMillis;
+
+    private volatile BloomFilter bloomFilter;
+    private volatile boolean indexEnsured;
+    private Date lastSync = new Date(0);
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+                                  MongoTemplate mongoTemplate,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${jwt.expiration:3600000}") long jwtExpiration,
+                                  @Value("${jwt.revocation.expected-revocations:100000}") int expectedRevocations,
+                                  @Value("${jwt.revocation.false-positive-rate:0.001}") double falsePositiveRate,
+                                  @Value("${jwt.revocation.sync-interval:15000}") long syncInterval) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveRate = falsePositiveRate;
+        this.syncOverlapMillis = syncInterval;
+        // One rotation of the wheel spans the configured token lifetime
+        int slots = (int) Math.max(2, jwtExpiration / TICK_MILLIS + 1);
+        this.timingWheel = new RevocationTimingWheel(TICK_MILLIS, slots, System.currentTimeMillis());
+        this.bloomFilter = new BloomFilter(expectedRevocations, falsePositiveRate);
+        Gauge.builder("jwt.revocations.active", timingWheel, RevocationTimingWheel::size)
+                .description("Revoked tokens that have not yet expired")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Revoke a token until its own expiry. Tokens without a jti cannot be revoked individually.
+     */
+    public void revoke(VerifiedToken verifiedToken) {
+        if (verifiedToken.getId() == null || verifiedToken.getExpiration() == null) {
+            log.warn("Cannot revoke token without jti/exp for user: {}", verifiedToken.getSubject());
+            return;
+        }
+        RevokedToken revokedToken = RevokedToken.builder()
+                .id(verifiedToken.getId())
+                .username(verifiedToken.getSubject())
+                .expiresAt(verifiedToken.getExpiration())
+                .revokedAt(new Date())
+                .build();
+        revokedTokenRepository.save(revokedToken);
+        remember(revokedToken);
+        log.info("Token revoked for user: {}", verifiedToken.getSubject());
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null || !bloomFilter.mightContain(jti)) {
+            return false;
+        }
+        return timingWheel.contains(jti, System.currentTimeMillis());
+    }
+
+    /**
+     * Pull revocations made on other nodes since the last sync. Runs off the request path.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval:15000}")
+    public void syncFromDatabase() {
+        try {
+            ensureIndexes();
+            Date syncStart = new Date();
+            // Overlap the window slightly so clock skew between nodes cannot hide a revocation
+            List<RevokedToken> revocations = revokedTokenRepository.findByRevokedAtAfter(
+                    new Date(lastSync.getTime() - syncOverlapMillis));
+            revocations.forEach(this::remember);
+            lastSync = syncStart;
+        } catch (Exception e) {
+            log.warn("Token revocation sync failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Expire revocations whose tokens have expired and rebuild the Bloom filter,
+     * since entries cannot be removed from it individually.
+     */
+    @Scheduled(fixedRate = TICK_MILLIS)
+    public void expireRevocations() {
+        int removed = timingWheel.advance(System.currentTimeMillis());
+        if (removed > 0) {
+            rebuildBloomFilter();
+            log.debug("Expired {} revocations, {} still active", removed, timingWheel.size());
+        }
+    }
+
+    // Synchronized with remember() so a revocation added mid-rebuild cannot be lost
+    private synchronized void rebuildBloomFilter() {
+        BloomFilter rebuilt = new BloomFilter(expectedRevocations, falsePositiveRate);
+        timingWheel.liveEntries().forEach(rebuilt::put);
+        bloomFilter = rebuilt;
+    }
+
+    private synchronized void remember(RevokedToken revokedToken) {
+        if (revokedToken.getExpiresAt() == null) {
+            return;
+        }
+        timingWheel.add(revokedToken.getId(), revokedToken.getExpiresAt().getTime());
+        bloomFilter.put(revokedToken.getId());
+    }
+
+    // auto-index-creation is off in dev/prod, so make sure the TTL index and the index behind the
+    // revokedAt range read of every sync exist
+    private void ensureIndexes() {
+        if (indexEnsured) {
+            return;
+        }
+        IndexOperations indexOps = mongoTemplate.indexOps(RevokedToken.class);
+        indexOps.ensureIndex(new Index().on("expiresAt", Sort.Direction.ASC).expire(Duration.ZERO));
+        indexOps.ensureIndex(new Index().on("revokedAt", Sort.Direction.ASC).named("revokedAt"));
+        indexEnsured = true;
+    }
+}
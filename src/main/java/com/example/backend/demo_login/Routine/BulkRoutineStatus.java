@@ -0,0 +1,172 @@
+package com.example.backend.demo_login.Routine;
+
+import com.example.backend.demo_login.Auth.Exception.ValidationException;
+import com.example.backend.demo_login.Enum.RoutineStatus;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Query building and outcome mapping for bulk status changes, shared by the blocking and
+ * reactive services. A bulk change is two round trips whatever its size: one projected read of
+ * the candidate routines (which gives the per-id outcomes) and one updateMany over those that
+ * do not already have the target status. If the update modifies fewer routines than that, a
+ * third read of the targets finds which ones it skipped so their outcomes are not reported as updated.
+ */
+final class BulkRoutineStatus {
+
+    private BulkRoutineStatus() {
+    }
+
+    static void validate(BulkRoutineStatusRequest request, int maxRoutines) {
+        if (request == null || request.getStatus() == null) {
+            throw new ValidationException("Target status is required");
+        }
+        boolean byIds = request.getIds() != null;
+        if (byIds == (request.getFilter() != null)) {
+            throw new ValidationException("Specify either ids or filter");
+        }
+        if (byIds && (request.getIds().isEmpty() || request.getIds().size() > maxRoutines)) {
+            throw new ValidationException("Between 1 and " + maxRoutines + " ids are allowed");
+        }
+    }
+
+    /**
+     * Live routines the request selects, restricted to ownerId unless it is null (admin by ids).
+     * Filter selections read one routine past the limit so an oversized filter can be refused.
+     */
+    static Query candidates(BulkRoutineStatusRequest request, String ownerId, int maxRoutines) {
+        Criteria criteria = Criteria.where("deletedBy").is(null);
+        if (ownerId != null) {
+            criteria.and("userId").is(ownerId);
+        }
+        Query query;
+        if (request.getIds() != null) {
+            query = new Query(criteria.and("id").in(request.getIds()));
+        } else {
+            BulkRoutineStatusRequest.Filter filter = request.getFilter();
+            if (filter.getRoutineStatus() != null) {
+                criteria.and("routineStatus").is(filter.getRoutineStatus());
+            }
+            if (filter.getRoutineType() != null) {
+                criteria.and("routineType").is(filter.getRoutineType());
+            }
+            if (filter.getRoutineFrequency() != null) {
+                criteria.and("routineFrequency").is(filter.getRoutineFrequency());
+            }
+            query = new Query(criteria).with(Sort.by(Sort.Direction.ASC, "_id")).limit(maxRoutines + 1);
+        }
+        query.fields().include("id").include("routineStatus");
+        return query;
+    }
+
+    static void checkFilterSize(List<Routine> candidates, int maxRoutines) {
+        if (candidates.size() > maxRoutines) {
+            throw new ValidationException("Filter matches more than " + maxRoutines + " routines");
+        }
+    }
+
+    /**
+     * Candidate ids that still need the change.
+     */
+    static List<String> toChange(List<Routine> candidates, RoutineStatus status) {
+        return candidates.stream()
+                .filter(routine -> routine.getRoutineStatus() != status)
+                .map(Routine::getId)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * The update is re-guarded on liveness and status, so a routine deleted or changed since
+     * the read is not overwritten.
+     */
+    static Query targets(List<String> ids, RoutineStatus status) {
+        return new Query(Criteria.where("id").in(ids)
+                .and("deletedBy").is(null)
+                .and("routineStatus").ne(status));
+    }
+
+    /**
+     * Stamp for the update's updatedAt. Mongo keeps milliseconds, so a truncated stamp reads back equal.
+     */
+    static Instant stamp() {
+        return Instant.now().truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    /**
+     * The targets as they are after the update, with the fields needed to tell whether it changed them.
+     */
+    static Query reread(List<String> ids) {
+        Query query = new Query(Criteria.where("id").in(ids));
+        query.fields().include("id").include("routineStatus").include("deletedBy")
+                .include("updatedBy").include("auditDateTime.updatedAt");
+        return query;
+    }
+
+    /**
+     * Outcomes of the targets the guarded update skipped: deleted since the candidate read, or moved
+     * to the target status by another writer in between. Routines the update changed carry its
+     * updatedBy and updatedAt stamp (a later writer may since have changed them again).
+     */
+    static Map<String, String> skipped(List<String> ids, List<Routine> reread, RoutineStatus status,
+                                       String currentUser, Instant stamp) {
+        Map<String, Routine> now = reread.stream()
+                .collect(Collectors.toMap(Routine::getId, Function.identity(), (a, b) -> a));
+        Map<String, String> skipped = new LinkedHashMap<>();
+        for (String id : ids) {
+            Routine routine = now.get(id);
+            if (routine == null || routine.getDeletedBy() != null) {
+                skipped.put(id, RoutineStatusResult.NOT_FOUND);
+            } else if (routine.getRoutineStatus() == status && !stampedBy(routine, currentUser, stamp)) {
+                skipped.put(id, RoutineStatusResult.UNCHANGED);
+            }
+        }
+        return skipped;
+    }
+
+    private static boolean stampedBy(Routine routine, String currentUser, Instant stamp) {
+        return Objects.equals(routine.getUpdatedBy(), currentUser)
+                && routine.getAuditDateTime() != null
+                && stamp.equals(routine.getAuditDateTime().getUpdatedAt());
+    }
+
+    static List<RoutineStatusResult> results(BulkRoutineStatusRequest request, List<Routine> candidates) {
+        return results(request, candidates, Map.of());
+    }
+
+    /**
+     * One outcome per requested id in request order (duplicates collapsed), or per matched
+     * routine for a filter. Outcomes in skipped override those derived from the candidate read.
+     */
+    static List<RoutineStatusResult> results(BulkRoutineStatusRequest request, List<Routine> candidates,
+                                             Map<String, String> skipped) {
+        Map<String, Routine> found = candidates.stream()
+                .collect(Collectors.toMap(Routine::getId, Function.identity(), (a, b) -> a, LinkedHashMap::new));
+        Iterable<String> ids = request.getIds() != null ? new LinkedHashSet<>(request.getIds()) : found.keySet();
+        List<RoutineStatusResult> results = new ArrayList<>();
+        for (String id : ids) {
+            Routine routine = found.get(id);
+            String outcome = routine == null ? RoutineStatusResult.NOT_FOUND
+                    : routine.getRoutineStatus() == request.getStatus() ? RoutineStatusResult.UNCHANGED
+                    : skipped.getOrDefault(id, RoutineStatusResult.UPDATED);
+            results.add(RoutineStatusResult.builder().id(id).outcome(outcome).build());
+        }
+        return results;
+    }
+
+    static String message(List<RoutineStatusResult> results, RoutineStatus status) {
+        long updated = results.stream().filter(result -> RoutineStatusResult.UPDATED.equals(result.getOutcome())).count();
+        return updated + " routine(s) updated to " + status;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.backend.demo_login.Routine;
+
+import com.example.backend.demo_login.Enum.RoutineFrequency;
+import com.example.backend.demo_login.Enum.RoutineStatus;
+import com.example.backend.demo_login.Enum.RoutineType;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Moves many routines to {@code status} at once. Routines are picked either by {@code ids} or by
+ * {@code filter} (for example all ACTIVE SKIN routines), never both.
+ */
+@Data
+public class BulkRoutineStatusRequest {
+    private List<String> ids;
+    private Filter filter;
+    private RoutineStatus status;
+
+    /**
+     * Criteria on the current user's live routines; unset fields match anything.
+     */
+    @Data
+    public static class Filter {
+        private RoutineStatus routineStatus;
+        private RoutineType routineType;
+        private RoutineFrequency routineFrequency;
+    }
+}
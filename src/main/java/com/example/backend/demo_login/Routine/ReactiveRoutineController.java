@@ -0,0 +1,230 @@
+package com.example.backend.demo_login.Routine;
+
+import com.example.backend.demo_login.Auth.ApiResponse;
+import com.example.backend.demo_login.Auth.Exception.ValidationException;
+import com.example.backend.demo_login.Enum.RoutineStatus;
+import com.example.backend.demo_login.UserPrincipal;
+import com.example.backend.demo_login.Utilities.MergePatch;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reactive version of {@link RoutineController}: same paths, status codes and messages.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/routines")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveRoutineController {
+
+    private final ReactiveRoutineService routineService;
+
+    /**
+     * Create a new routine
+     * POST /api/routines
+     */
+    @PostMapping
+    public Mono<ResponseEntity<ApiResponse<Routine>>> createRoutine(@RequestBody Routine routine) {
+        log.info("Creating routine: {}", routine.getRoutineName());
+
+        return currentUsername()
+                .flatMap(currentUser -> {
+                    // Set userId from authenticated user
+                    routine.setUserId(currentUser);
+                    return routineService.createRoutine(routine, currentUser);
+                })
+                .map(created -> ResponseEntity.status(HttpStatus.CREATED)
+                        .body(ApiResponse.success(created, "Routine created successfully")))
+                .onErrorResume(e -> error(HttpStatus.BAD_REQUEST, "Failed to create routine: ", e));
+    }
+
+    /**
+     * Get all routines
+     * GET /api/routines?cursor=&size=
+     */
+    @GetMapping
+    public Mono<ResponseEntity<ApiResponse<List<Routine>>>> getAllRoutines(@RequestParam(required = false) String cursor,
+                                                                           @RequestParam(required = false) Integer size) {
+        return routineService.getAllRoutines(cursor, size)
+                .map(page -> ResponseEntity.ok(ApiResponse.success(page.getRoutines(), "Routines retrieved successfully", page.getNextCursor())))
+                .onErrorResume(ValidationException.class, ReactiveRoutineController::badRequest)
+                .onErrorResume(e -> error(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to fetch routines: ", e));
+    }
+
+    /**
+     * Get routine by ID
+     * GET /api/routines/{id}
+     */
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<ApiResponse<Routine>>> getRoutineById(@PathVariable String id) {
+        return routineService.getRoutineById(id)
+                .map(routine -> ResponseEntity.ok(ApiResponse.success(routine, "Routine retrieved successfully")))
+                .switchIfEmpty(Mono.fromSupplier(() -> notFound(id)))
+                .onErrorResume(e -> error(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to fetch routine: ", e));
+    }
+
+    /**
+     * Get routines by user ID
+     * GET /api/routines/user/{userId}?cursor=&size=
+     */
+    @GetMapping("/user/{userId}")
+    public Mono<ResponseEntity<ApiResponse<List<Routine>>>> getRoutinesByUserId(@PathVariable String userId,
+                                                                                @RequestParam(required = false) String cursor,
+                                                                                @RequestParam(required = false) Integer size) {
+        return currentAuthentication()
+                .flatMap(authentication -> {
+                    if (!authentication.getName().equals(userId) && !isAdmin(authentication)) {
+                        return Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN)
+                                .body(ApiResponse.<List<Routine>>error("Access denied: Cannot access other user's routines")));
+                    }
+                    return routineService.getRoutinesByUserId(userId, cursor, size)
+                            .map(page -> ResponseEntity.ok(ApiResponse.success(page.getRoutines(), "User routines retrieved successfully", page.getNextCursor())));
+                })
+                .onErrorResume(ValidationException.class, ReactiveRoutineController::badRequest)
+                .onErrorResume(e -> error(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to fetch user routines: ", e));
+    }
+
+    /**
+     * Get routines for current user
+     * GET /api/routines/my?cursor=&size=
+     */
+    @GetMapping("/my")
+    public Mono<ResponseEntity<ApiResponse<List<Routine>>>> getMyRoutines(@RequestParam(required = false) String cursor,
+                                                                          @RequestParam(required = false) Integer size) {
+        return currentUsername()
+                .flatMap(currentUser -> routineService.getRoutinesByUserId(currentUser, cursor, size))
+                .map(page -> ResponseEntity.ok(ApiResponse.success(page.getRoutines(), "Your routines retrieved successfully", page.getNextCursor())))
+                .onErrorResume(ValidationException.class, ReactiveRoutineController::badRequest)
+                .onErrorResume(e -> error(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to fetch your routines: ", e));
+    }
+
+    /**
+     * Update routine; the body is a JSON Merge Patch (only the fields present change, null removes one)
+     * PATCH /api/routines/{id}
+     */
+    @PatchMapping(value = "/{id}", consumes = {MergePatch.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE})
+    public Mono<ResponseEntity<ApiResponse<Routine>>> updateRoutine(@PathVariable String id, @RequestBody Map<String, Object> patch) {
+        return currentUsername()
+                .flatMap(currentUser -> routineService.updateRoutine(id, patch, currentUser))
+                .map(updated -> ResponseEntity.ok(ApiResponse.success(updated, "Routine updated successfully")))
+                .switchIfEmpty(Mono.fromSupplier(() -> notFound(id)))
+                .onErrorResume(e -> error(HttpStatus.BAD_REQUEST, "Failed to update routine: ", e));
+    }
+
+    /**
+     * Update routine status
+     * PATCH /api/routines/{id}/status
+     */
+    @PatchMapping("/{id}/status")
+    public Mono<ResponseEntity<ApiResponse<Routine>>> updateRoutineStatus(@PathVariable String id, @RequestBody RoutineStatusRequest statusRequest) {
+        return currentUsername()
+                .flatMap(currentUser -> routineService.updateRoutineStatus(id, statusRequest.getStatus(), currentUser))
+                .map(updated -> ResponseEntity.ok(ApiResponse.success(updated, "Routine status updated successfully")))
+                .switchIfEmpty(Mono.fromSupplier(() -> notFound(id)))
+                .onErrorResume(e -> error(HttpStatus.BAD_REQUEST, "Failed to update routine status: ", e));
+    }
+
+    /**
+     * Change the status of many routines at once, picked by ids or by a filter
+     * PATCH /api/routines/bulk/status
+     */
+    @PatchMapping("/bulk/status")
+    public Mono<ResponseEntity<ApiResponse<List<RoutineStatusResult>>>> updateRoutineStatuses(@RequestBody BulkRoutineStatusRequest request) {
+        return currentAuthentication()
+                .flatMap(authentication -> {
+                    // Admins may name any routine by id; filters always select the caller's own routines
+                    String ownerId = isAdmin(authentication) && request.getIds() != null ? null : authentication.getName();
+                    return routineService.updateRoutineStatuses(request, ownerId, authentication.getName());
+                })
+                .map(results -> ResponseEntity.ok(ApiResponse.success(results, BulkRoutineStatus.message(results, request.getStatus()))))
+                .onErrorResume(ValidationException.class, ReactiveRoutineController::badRequest)
+                .onErrorResume(e -> error(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to update routine statuses: ", e));
+    }
+
+    /**
+     * Get routines by status
+     * GET /api/routines/status/{status}?cursor=&size=
+     */
+    @GetMapping("/status/{status}")
+    public Mono<ResponseEntity<ApiResponse<List<Routine>>>> getRoutinesByStatus(@PathVariable RoutineStatus status,
+                                                                                @RequestParam(required = false) String cursor,
+                                                                                @RequestParam(required = false) Integer size) {
+        return routineService.getRoutinesByStatus(status, cursor, size)
+                .map(page -> ResponseEntity.ok(ApiResponse.success(page.getRoutines(), "Routines with status " + status + " retrieved successfully", page.getNextCursor())))
+                .onErrorResume(ValidationException.class, ReactiveRoutineController::badRequest)
+                .onErrorResume(e -> error(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to fetch routines by status: ", e));
+    }
+
+    /**
+     * Get my routines by status
+     * GET /api/routines/my/status/{status}?cursor=&size=
+     */
+    @GetMapping("/my/status/{status}")
+    public Mono<ResponseEntity<ApiResponse<List<Routine>>>> getMyRoutinesByStatus(@PathVariable RoutineStatus status,
+                                                                                  @RequestParam(required = false) String cursor,
+                                                                                  @RequestParam(required = false) Integer size) {
+        return currentUsername()
+                .flatMap(currentUser -> routineService.getRoutinesByUserIdAndStatus(currentUser, status, cursor, size))
+                .map(page -> ResponseEntity.ok(ApiResponse.success(page.getRoutines(), "Your routines with status " + status + " retrieved successfully", page.getNextCursor())))
+                .onErrorResume(ValidationException.class, ReactiveRoutineController::badRequest)
+                .onErrorResume(e -> error(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to fetch your routines by status: ", e));
+    }
+
+    /**
+     * Soft delete routine
+     * DELETE /api/routines/{id}
+     */
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<ApiResponse<String>>> deleteRoutine(@PathVariable String id) {
+        return currentUsername()
+                .flatMap(currentUser -> routineService.deleteRoutine(id, currentUser))
+                .map(deleted -> deleted
+                        ? ResponseEntity.ok(ApiResponse.<String>success(null, "Routine deleted successfully"))
+                        : ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.<String>error("Routine not found with ID: " + id)))
+                .onErrorResume(e -> error(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to delete routine: ", e));
+    }
+
+    private static Mono<Authentication> currentAuthentication() {
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication);
+    }
+
+    private static Mono<String> currentUsername() {
+        return currentAuthentication()
+                .map(Authentication::getName)
+                .defaultIfEmpty("anonymous");
+    }
+
+    private static boolean isAdmin(Authentication authentication) {
+        return authentication.getAuthorities().stream()
+                .anyMatch(authority -> UserPrincipal.ADMIN_AUTHORITY.equals(authority.getAuthority()));
+    }
+
+    private static <T> ResponseEntity<ApiResponse<T>> notFound(String id) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(ApiResponse.error("Routine not found with ID: " + id));
+    }
+
+    // Bad cursor, page size or bulk selection
+    private static <T> Mono<ResponseEntity<ApiResponse<T>>> badRequest(ValidationException e) {
+        return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.error(e.getMessage())));
+    }
+
+    private static <T> Mono<ResponseEntity<ApiResponse<T>>> error(HttpStatus status, String prefix, Throwable e) {
+        log.error("{}{}", prefix, e.getMessage(), e);
+        return Mono.just(ResponseEntity.status(status).body(ApiResponse.error(prefix + e.getMessage())));
+    }
+}
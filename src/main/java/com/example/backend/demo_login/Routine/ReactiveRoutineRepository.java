@@ -0,0 +1,61 @@
+package com.example.backend.demo_login.Routine;
+
+import com.example.backend.demo_login.Enum.RoutineStatus;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of {@link RoutineRepository}, used by the reactive profile.
+ */
+@Repository
+public interface ReactiveRoutineRepository extends ReactiveMongoRepository<Routine, String> {
+
+    // Find all routines by userId (not soft deleted)
+    @Query("{'userId': ?0, 'deletedBy': null}")
+    Flux<Routine> findByUserIdAndNotDeleted(String userId);
+
+    // Find routine by id (not soft deleted)
+    @Query("{'_id': ?0, 'deletedBy': null}")
+    Mono<Routine> findByIdAndNotDeleted(String id);
+
+    // Find all routines (not soft deleted)
+    @Query("{'deletedBy': null}")
+    Flux<Routine> findAllNotDeleted();
+
+    // Check if routine exists by routineId and userId (not soft deleted)
+    @Query(value = "{'routineId': ?0, 'userId': ?1, 'deletedBy': null}", exists = true)
+    Mono<Boolean> existsByRoutineIdAndUserIdAndNotDeleted(String routineId, String userId);
+
+    // Find by routineId and userId (not soft deleted)
+    @Query("{'routineId': ?0, 'userId': ?1, 'deletedBy': null}")
+    Mono<Routine> findByRoutineIdAndUserIdAndNotDeleted(String routineId, String userId);
+
+    // Find routines by status (not soft deleted)
+    @Query("{'routineStatus': ?0, 'deletedBy': null}")
+    Flux<Routine> findByRoutineStatusAndNotDeleted(RoutineStatus status);
+
+    // Find routines by userId and status (not soft deleted)
+    @Query("{'userId': ?0, 'routineStatus': ?1, 'deletedBy': null}")
+    Flux<Routine> findByUserIdAndRoutineStatusAndNotDeleted(String userId, RoutineStatus status);
+
+    // Keyset page of all routines after the given _id, in _id order (see RoutinePager)
+    @Query(value = "{'deletedBy': null, '_id': {'$gt': ?0}}", sort = "{'_id': 1}")
+    Flux<Routine> findPageNotDeleted(ObjectId after, Pageable pageable);
+
+    // Keyset page of routines by userId (not soft deleted)
+    @Query(value = "{'userId': ?0, 'deletedBy': null, '_id': {'$gt': ?1}}", sort = "{'_id': 1}")
+    Flux<Routine> findPageByUserIdAndNotDeleted(String userId, ObjectId after, Pageable pageable);
+
+    // Keyset page of routines by status (not soft deleted)
+    @Query(value = "{'routineStatus': ?0, 'deletedBy': null, '_id': {'$gt': ?1}}", sort = "{'_id': 1}")
+    Flux<Routine> findPageByRoutineStatusAndNotDeleted(RoutineStatus status, ObjectId after, Pageable pageable);
+
+    // Keyset page of routines by userId and status (not soft deleted)
+    @Query(value = "{'userId': ?0, 'routineStatus': ?1, 'deletedBy': null, '_id': {'$gt': ?2}}", sort = "{'_id': 1}")
+    Flux<Routine> findPageByUserIdAndRoutineStatusAndNotDeleted(String userId, RoutineStatus status, ObjectId after, Pageable pageable);
+}
@@ -0,0 +1,145 @@
+package com.example.backend.demo_login.Routine;
+
+import com.example.backend.demo_login.Enum.RoutineStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * Non-blocking version of {@link RoutineService} for the reactive profile. The current
+ * username is passed in by the controller, which reads it from the reactive security context.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveRoutineService {
+
+    private final ReactiveRoutineRepository routineRepository;
+    private final RoutinePager routinePager;
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.routines.bulk-max:1000}")
+    private int bulkMaxRoutines;
+
+    /**
+     * Create a new routine
+     */
+    public Mono<Routine> createRoutine(Routine routine, String currentUser) {
+        log.info("Creating new routine: {}", routine.getRoutineName());
+
+        RoutineService.applyCreateDefaults(routine, currentUser);
+
+        return routineRepository.save(routine)
+                .doOnNext(saved -> log.info("Routine created successfully with ID: {} and status: {}",
+                        saved.getRoutineId(), saved.getRoutineStatus()));
+    }
+
+    public Mono<RoutinePage> getAllRoutines(String cursor, Integer size) {
+        return page(cursor, size, routineRepository::findPageNotDeleted);
+    }
+
+    public Mono<Routine> getRoutineById(String id) {
+        return routineRepository.findByIdAndNotDeleted(id);
+    }
+
+    public Mono<RoutinePage> getRoutinesByUserId(String userId, String cursor, Integer size) {
+        return page(cursor, size, (after, pageable) ->
+                routineRepository.findPageByUserIdAndNotDeleted(userId, after, pageable));
+    }
+
+    /**
+     * Apply a JSON Merge Patch as one targeted findAndModify; empty if no live routine has this id
+     */
+    public Mono<Routine> updateRoutine(String id, Map<String, Object> patch, String currentUser) {
+        log.info("Updating routine with ID: {}", id);
+
+        return Mono.fromCallable(() -> RoutineUpdates.PATCH.toUpdate(patch, objectMapper))
+                .flatMap(update -> update.getUpdateObject().isEmpty()
+                        // An empty merge patch changes nothing
+                        ? routineRepository.findByIdAndNotDeleted(id)
+                        : mongoTemplate.findAndModify(RoutineUpdates.live(id),
+                                RoutineUpdates.touched(update, currentUser), RoutineUpdates.RETURN_NEW, Routine.class));
+    }
+
+    /**
+     * Update routine status in one conditional findAndModify; empty if no live routine has this id
+     */
+    public Mono<Routine> updateRoutineStatus(String id, RoutineStatus newStatus, String currentUser) {
+        log.info("Updating routine status with ID: {} to status: {}", id, newStatus);
+
+        return mongoTemplate.findAndModify(RoutineUpdates.live(id),
+                RoutineUpdates.statusChange(newStatus, currentUser), RoutineUpdates.RETURN_NEW, Routine.class);
+    }
+
+    /**
+     * Move many routines to one status with a projected read and a single updateMany.
+     * Only routines of ownerId are considered unless it is null.
+     */
+    public Mono<List<RoutineStatusResult>> updateRoutineStatuses(BulkRoutineStatusRequest request, String ownerId, String currentUser) {
+        return Mono.defer(() -> {
+            BulkRoutineStatus.validate(request, bulkMaxRoutines);
+            return mongoTemplate.find(BulkRoutineStatus.candidates(request, ownerId, bulkMaxRoutines), Routine.class)
+                    .collectList();
+        }).flatMap(candidates -> {
+            if (request.getFilter() != null) {
+                BulkRoutineStatus.checkFilterSize(candidates, bulkMaxRoutines);
+            }
+            List<String> ids = BulkRoutineStatus.toChange(candidates, request.getStatus());
+            if (ids.isEmpty()) {
+                return Mono.fromSupplier(() -> BulkRoutineStatus.results(request, candidates));
+            }
+            Instant stamp = BulkRoutineStatus.stamp();
+            return mongoTemplate.updateMulti(BulkRoutineStatus.targets(ids, request.getStatus()),
+                            RoutineUpdates.statusChange(request.getStatus(), currentUser, stamp), Routine.class)
+                    .flatMap(result -> result.getModifiedCount() < ids.size()
+                            ? mongoTemplate.find(BulkRoutineStatus.reread(ids), Routine.class).collectList()
+                                    .map(reread -> BulkRoutineStatus.skipped(ids, reread, request.getStatus(), currentUser, stamp))
+                            : Mono.just(Map.<String, String>of()))
+                    .map(skipped -> BulkRoutineStatus.results(request, candidates, skipped));
+        });
+    }
+
+    public Mono<RoutinePage> getRoutinesByStatus(RoutineStatus status, String cursor, Integer size) {
+        return page(cursor, size, (after, pageable) ->
+                routineRepository.findPageByRoutineStatusAndNotDeleted(status, after, pageable));
+    }
+
+    public Mono<RoutinePage> getRoutinesByUserIdAndStatus(String userId, RoutineStatus status, String cursor, Integer size) {
+        return page(cursor, size, (after, pageable) ->
+                routineRepository.findPageByUserIdAndRoutineStatusAndNotDeleted(userId, status, after, pageable));
+    }
+
+    // Deferred so a bad cursor or size surfaces as an error signal rather than a throw
+    private Mono<RoutinePage> page(String cursor, Integer size, BiFunction<ObjectId, Pageable, Flux<Routine>> query) {
+        return Mono.defer(() -> {
+            Pageable pageable = routinePager.pageable(size);
+            return query.apply(routinePager.after(cursor), pageable).collectList()
+                    .map(routines -> routinePager.page(routines, pageable));
+        });
+    }
+
+    /**
+     * Soft delete routine in one conditional update; emits false if no live routine has this id
+     */
+    public Mono<Boolean> deleteRoutine(String id, String currentUser) {
+        log.info("Soft deleting routine with ID: {}", id);
+
+        return mongoTemplate.updateFirst(RoutineUpdates.live(id), RoutineUpdates.softDelete(currentUser), Routine.class)
+                .map(result -> result.getMatchedCount() > 0);
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.backend.demo_login.Routine;
+
+import com.example.backend.demo_login.Auth.Exception.ValidationException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteError;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Batch routine creation from a JSON array or NDJSON, one {@link Routine} per element or line.
+ * <p>
+ * Every routine gets the same defaults as {@link RoutineService#createRoutine} and belongs to the
+ * caller. Routines are written in chunks with one unordered bulk insert each, so a rejected routine
+ * only fails its own item. Ids are assigned before the insert so every result can report one.
+ */
+@Slf4j
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class RoutineBatchService {
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final int maxItems;
+
+    public RoutineBatchService(MongoTemplate mongoTemplate,
+                               ObjectMapper objectMapper,
+                               @Value("${app.routine-batch.chunk-size:500}") int chunkSize,
+                               @Value("${app.routine-batch.max-items:1000}") int maxItems) {
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+        this.maxItems = maxItems;
+    }
+
+    /**
+     * Create the routines of a JSON array body. Results are in request order.
+     */
+    public List<RoutineCreateResult> createRoutines(List<Routine> routines, String currentUser) {
+        if (routines == null || routines.isEmpty()) {
+            throw new ValidationException("At least one routine is required");
+        }
+        if (routines.size() > maxItems) {
+            throw new ValidationException("At most " + maxItems + " routines per request, send NDJSON for larger batches");
+        }
+        List<RoutineCreateResult> results = new ArrayList<>(routines.size());
+        List<PendingRoutine> chunk = new ArrayList<>(Math.min(chunkSize, routines.size()));
+        for (int i = 0; i < routines.size(); i++) {
+            Routine routine = routines.get(i);
+            chunk.add(new PendingRoutine(i, null, routine, routine == null ? "Routine is null" : null));
+            if (chunk.size() >= chunkSize) {
+                results.addAll(insert(chunk, currentUser));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            results.addAll(insert(chunk, currentUser));
+        }
+        log.info("Batch create by {} finished: {} of {} routines created", currentUser, created(results), routines.size());
+        return results;
+    }
+
+    /**
+     * Create routines from NDJSON. One result line is written per input line and flushed after every chunk.
+     */
+    public void createRoutines(InputStream in, OutputStream out, String currentUser) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        List<PendingRoutine> chunk = new ArrayList<>(chunkSize);
+        long lineNumber = 0;
+        long created = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            chunk.add(read(lineNumber, line));
+            if (chunk.size() >= chunkSize) {
+                created += write(insert(chunk, currentUser), out);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            created += write(insert(chunk, currentUser), out);
+        }
+        log.info("NDJSON batch create by {} finished: {} lines, {} routines created", currentUser, lineNumber, created);
+    }
+
+    private PendingRoutine read(long lineNumber, String json) {
+        try {
+            Routine routine = objectMapper.readValue(json, Routine.class);
+            return new PendingRoutine(null, lineNumber, routine, routine == null ? "Routine is null" : null);
+        } catch (JsonProcessingException e) {
+            return new PendingRoutine(null, lineNumber, null, "Malformed JSON");
+        }
+    }
+
+    private List<RoutineCreateResult> insert(List<PendingRoutine> chunk, String currentUser) {
+        RoutineCreateResult[] results = new RoutineCreateResult[chunk.size()];
+        List<Integer> positions = new ArrayList<>();
+        List<Routine> routines = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            PendingRoutine pending = chunk.get(i);
+            if (pending.routine == null) {
+                results[i] = result(pending, RoutineCreateResult.INVALID, pending.error);
+                continue;
+            }
+            // Callers only create their own routines, as with POST /api/routines
+            pending.routine.setUserId(currentUser);
+            RoutineService.applyCreateDefaults(pending.routine, currentUser);
+            positions.add(i);
+            routines.add(pending.routine);
+        }
+
+        if (!routines.isEmpty()) {
+            boolean[] failed = new boolean[routines.size()];
+            try {
+                mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Routine.class).insert(routines).execute();
+            } catch (BulkOperationException e) {
+                for (BulkWriteError writeError : e.getErrors()) {
+                    int index = writeError.getIndex();
+                    failed[index] = true;
+                    PendingRoutine pending = chunk.get(positions.get(index));
+                    results[positions.get(index)] = writeError.getCode() == 11000
+                            ? result(pending, RoutineCreateResult.DUPLICATE, "Routine already exists with ID: " + pending.routine.getId())
+                            : result(pending, RoutineCreateResult.FAILED, writeError.getMessage());
+                }
+            }
+            for (int i = 0; i < routines.size(); i++) {
+                if (!failed[i]) {
+                    results[positions.get(i)] = result(chunk.get(positions.get(i)), RoutineCreateResult.CREATED, null);
+                }
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private long write(List<RoutineCreateResult> results, OutputStream out) throws IOException {
+        for (RoutineCreateResult result : results) {
+            out.write(objectMapper.writeValueAsBytes(result));
+            out.write('\n');
+        }
+        out.flush();
+        return created(results);
+    }
+
+    /**
+     * Summary line for a batch create response.
+     */
+    static String message(List<RoutineCreateResult> results) {
+        return created(results) + " of " + results.size() + " routines created";
+    }
+
+    private static long created(List<RoutineCreateResult> results) {
+        return results.stream().filter(r -> RoutineCreateResult.CREATED.equals(r.getStatus())).count();
+    }
+
+    private static RoutineCreateResult result(PendingRoutine pending, String status, String message) {
+        return RoutineCreateResult.builder()
+                .index(pending.index)
+                .line(pending.line)
+                .id(pending.routine == null ? null : pending.routine.getId())
+                .routineId(pending.routine == null ? null : pending.routine.getRoutineId())
+                .status(status)
+                .message(message)
+                .build();
+    }
+
+    @AllArgsConstructor
+    private static final class PendingRoutine {
+        private final Integer index;
+        private final Long line;
+        // Null when the item could not be read; error says why
+        private final Routine routine;
+        private final String error;
+    }
+}
@@ -1,25 +1,38 @@
 package com.example.backend.demo_login.Routine;
 
 import com.example.backend.demo_login.Auth.ApiResponse;
+import com.example.backend.demo_login.Auth.Exception.ValidationException;
 import com.example.backend.demo_login.Enum.RoutineStatus;
+import com.example.backend.demo_login.UserPrincipal;
+import com.example.backend.demo_login.Utilities.MergePatch;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Slf4j
 @RestController
 @RequestMapping("/api/routines")
 @RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class RoutineController {
     
+    private static final String NDJSON = "application/x-ndjson";
+    
     private final RoutineService routineService;
+    private final RoutineBatchService routineBatchService;
     
     /**
      * Create a new routine
@@ -45,16 +58,50 @@ public class RoutineController {
     }
     
     /**
-     * Get all routines
-     * GET /api/routines
+     * Create many routines from a JSON array, with one result per routine
+     * POST /api/routines/batch
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ApiResponse<List<RoutineCreateResult>>> createRoutines(@RequestBody List<Routine> routines) {
+        String currentUser = getCurrentUsername();
+        log.info("Batch create of {} routines requested by: {}", routines == null ? 0 : routines.size(), currentUser);
+        
+        try {
+            List<RoutineCreateResult> results = routineBatchService.createRoutines(routines, currentUser);
+            return ResponseEntity.ok(ApiResponse.success(results, RoutineBatchService.message(results)));
+        } catch (ValidationException e) {
+            return badRequest(e);
+        } catch (Exception e) {
+            log.error("Error in batch create by {}: {}", currentUser, e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to create routines: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * Create routines from NDJSON, one routine per line; results stream back one per line as each chunk is written
+     * POST /api/routines/batch
+     */
+    @PostMapping(value = "/batch", consumes = NDJSON)
+    public void createRoutinesNdjson(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON);
+        routineBatchService.createRoutines(request.getInputStream(), response.getOutputStream(), getCurrentUsername());
+    }
+    
+    /**
+     * Get all routines, one page at a time
+     * GET /api/routines?cursor=&size=
      */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<Routine>>> getAllRoutines() {
+    public ResponseEntity<ApiResponse<List<Routine>>> getAllRoutines(@RequestParam(required = false) String cursor,
+                                                                     @RequestParam(required = false) Integer size) {
         log.info("Fetching all routines");
         
         try {
-            List<Routine> routines = routineService.getAllRoutines();
-            return ResponseEntity.ok(ApiResponse.success(routines, "Routines retrieved successfully"));
+            RoutinePage page = routineService.getAllRoutines(cursor, size);
+            return ResponseEntity.ok(ApiResponse.success(page.getRoutines(), "Routines retrieved successfully", page.getNextCursor()));
+        } catch (ValidationException e) {
+            return badRequest(e);
         } catch (Exception e) {
             log.error("Error fetching routines: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -87,10 +134,12 @@ public class RoutineController {
     
     /**
      * Get routines by user ID
-     * GET /api/routines/user/{userId}
+     * GET /api/routines/user/{userId}?cursor=&size=
      */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<ApiResponse<List<Routine>>> getRoutinesByUserId(@PathVariable String userId) {
+    public ResponseEntity<ApiResponse<List<Routine>>> getRoutinesByUserId(@PathVariable String userId,
+                                                                          @RequestParam(required = false) String cursor,
+                                                                          @RequestParam(required = false) Integer size) {
         log.info("Fetching routines for user: {}", userId);
         
         try {
@@ -101,8 +150,10 @@ public class RoutineController {
                         .body(ApiResponse.error("Access denied: Cannot access other user's routines"));
             }
             
-            List<Routine> routines = routineService.getRoutinesByUserId(userId);
-            return ResponseEntity.ok(ApiResponse.success(routines, "User routines retrieved successfully"));
+            RoutinePage page = routineService.getRoutinesByUserId(userId, cursor, size);
+            return ResponseEntity.ok(ApiResponse.success(page.getRoutines(), "User routines retrieved successfully", page.getNextCursor()));
+        } catch (ValidationException e) {
+            return badRequest(e);
         } catch (Exception e) {
             log.error("Error fetching routines for user {}: {}", userId, e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -112,16 +163,19 @@ public class RoutineController {
     
     /**
      * Get routines for current user
-     * GET /api/routines/my
+     * GET /api/routines/my?cursor=&size=
      */
     @GetMapping("/my")
-    public ResponseEntity<ApiResponse<List<Routine>>> getMyRoutines() {
+    public ResponseEntity<ApiResponse<List<Routine>>> getMyRoutines(@RequestParam(required = false) String cursor,
+                                                                    @RequestParam(required = false) Integer size) {
         String currentUser = getCurrentUsername();
         log.info("Fetching routines for current user: {}", currentUser);
         
         try {
-            List<Routine> routines = routineService.getRoutinesByUserId(currentUser);
-            return ResponseEntity.ok(ApiResponse.success(routines, "Your routines retrieved successfully"));
+            RoutinePage page = routineService.getRoutinesByUserId(currentUser, cursor, size);
+            return ResponseEntity.ok(ApiResponse.success(page.getRoutines(), "Your routines retrieved successfully", page.getNextCursor()));
+        } catch (ValidationException e) {
+            return badRequest(e);
         } catch (Exception e) {
             log.error("Error fetching routines for current user {}: {}", currentUser, e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -130,15 +184,15 @@ public class RoutineController {
     }
     
     /**
-     * Update routine
+     * Update routine; the body is a JSON Merge Patch (only the fields present change, null removes one)
      * PATCH /api/routines/{id}
      */
-    @PatchMapping("/{id}")
-    public ResponseEntity<ApiResponse<Routine>> updateRoutine(@PathVariable String id, @RequestBody Routine routineDetails) {
+    @PatchMapping(value = "/{id}", consumes = {MergePatch.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<ApiResponse<Routine>> updateRoutine(@PathVariable String id, @RequestBody Map<String, Object> patch) {
         log.info("Updating routine with ID: {}", id);
         
         try {
-            Optional<Routine> updatedRoutine = routineService.updateRoutine(id, routineDetails);
+            Optional<Routine> updatedRoutine = routineService.updateRoutine(id, patch);
             if (updatedRoutine.isPresent()) {
                 return ResponseEntity.ok(ApiResponse.success(updatedRoutine.get(), "Routine updated successfully"));
             } else {
@@ -175,17 +229,44 @@ public class RoutineController {
         }
     }
     
+    /**
+     * Change the status of many routines at once, picked by ids or by a filter
+     * PATCH /api/routines/bulk/status
+     */
+    @PatchMapping("/bulk/status")
+    public ResponseEntity<ApiResponse<List<RoutineStatusResult>>> updateRoutineStatuses(@RequestBody BulkRoutineStatusRequest request) {
+        String currentUser = getCurrentUsername();
+        log.info("Bulk status change to {} requested by: {}", request.getStatus(), currentUser);
+        
+        try {
+            // Admins may name any routine by id; filters always select the caller's own routines
+            String ownerId = isAdmin() && request.getIds() != null ? null : currentUser;
+            List<RoutineStatusResult> results = routineService.updateRoutineStatuses(request, ownerId);
+            return ResponseEntity.ok(ApiResponse.success(results, BulkRoutineStatus.message(results, request.getStatus())));
+        } catch (ValidationException e) {
+            return badRequest(e);
+        } catch (Exception e) {
+            log.error("Error in bulk status change by {}: {}", currentUser, e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to update routine statuses: " + e.getMessage()));
+        }
+    }
+    
     /**
      * Get routines by status
-     * GET /api/routines/status/{status}
+     * GET /api/routines/status/{status}?cursor=&size=
      */
     @GetMapping("/status/{status}")
-    public ResponseEntity<ApiResponse<List<Routine>>> getRoutinesByStatus(@PathVariable RoutineStatus status) {
+    public ResponseEntity<ApiResponse<List<Routine>>> getRoutinesByStatus(@PathVariable RoutineStatus status,
+                                                                          @RequestParam(required = false) String cursor,
+                                                                          @RequestParam(required = false) Integer size) {
         log.info("Fetching routines with status: {}", status);
         
         try {
-            List<Routine> routines = routineService.getRoutinesByStatus(status);
-            return ResponseEntity.ok(ApiResponse.success(routines, "Routines with status " + status + " retrieved successfully"));
+            RoutinePage page = routineService.getRoutinesByStatus(status, cursor, size);
+            return ResponseEntity.ok(ApiResponse.success(page.getRoutines(), "Routines with status " + status + " retrieved successfully", page.getNextCursor()));
+        } catch (ValidationException e) {
+            return badRequest(e);
         } catch (Exception e) {
             log.error("Error fetching routines by status {}: {}", status, e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -195,16 +276,20 @@ public class RoutineController {
     
     /**
      * Get my routines by status
-     * GET /api/routines/my/status/{status}
+     * GET /api/routines/my/status/{status}?cursor=&size=
      */
     @GetMapping("/my/status/{status}")
-    public ResponseEntity<ApiResponse<List<Routine>>> getMyRoutinesByStatus(@PathVariable RoutineStatus status) {
+    public ResponseEntity<ApiResponse<List<Routine>>> getMyRoutinesByStatus(@PathVariable RoutineStatus status,
+                                                                            @RequestParam(required = false) String cursor,
+                                                                            @RequestParam(required = false) Integer size) {
         String currentUser = getCurrentUsername();
         log.info("Fetching routines for current user: {} with status: {}", currentUser, status);
         
         try {
-            List<Routine> routines = routineService.getRoutinesByUserIdAndStatus(currentUser, status);
-            return ResponseEntity.ok(ApiResponse.success(routines, "Your routines with status " + status + " retrieved successfully"));
+            RoutinePage page = routineService.getRoutinesByUserIdAndStatus(currentUser, status, cursor, size);
+            return ResponseEntity.ok(ApiResponse.success(page.getRoutines(), "Your routines with status " + status + " retrieved successfully", page.getNextCursor()));
+        } catch (ValidationException e) {
+            return badRequest(e);
         } catch (Exception e) {
             log.error("Error fetching routines for current user {} with status {}: {}", currentUser, status, e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -235,6 +320,14 @@ public class RoutineController {
         }
     }
     
+    /**
+     * Bad cursor, page size, bulk selection or batch size
+     */
+    private static <T> ResponseEntity<ApiResponse<T>> badRequest(ValidationException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(ApiResponse.error(e.getMessage()));
+    }
+    
     /**
      * Get current authenticated username
      */
@@ -254,8 +347,7 @@ public class RoutineController {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication != null && authentication.getAuthorities() != null) {
             return authentication.getAuthorities().stream()
-                    .anyMatch(authority -> authority.getAuthority().equals("ROLE_ADMIN") || 
-                                         authority.getAuthority().equals("ADMIN"));
+                    .anyMatch(authority -> UserPrincipal.ADMIN_AUTHORITY.equals(authority.getAuthority()));
         }
         return false;
     }
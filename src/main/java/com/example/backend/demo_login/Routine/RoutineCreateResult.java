@@ -0,0 +1,27 @@
+package com.example.backend.demo_login.Routine;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Outcome for one routine in a batch create.
+ */
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RoutineCreateResult {
+    public static final String CREATED = "CREATED";
+    public static final String INVALID = "INVALID";
+    public static final String DUPLICATE = "DUPLICATE";
+    public static final String FAILED = "FAILED";
+
+    // 0-based position in a JSON array request
+    private Integer index;
+    // 1-based line number in an NDJSON request
+    private Long line;
+    private String id;
+    private String routineId;
+    private String status;
+    private String message;
+}
@@ -0,0 +1,50 @@
+package com.example.backend.demo_login.Routine;
+
+import com.example.backend.demo_login.Enum.RoutineStatus;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Admin-only routine export for analytics, streamed as NDJSON (default) or CSV.
+ * GET /api/admin/routines/export?format=&userId=&status=&updatedAfter=&updatedBefore=
+ */
+@RestController
+@RequestMapping("/api/admin/routines")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class RoutineExportController {
+
+    private final RoutineExportService routineExportService;
+
+    public RoutineExportController(RoutineExportService routineExportService) {
+        this.routineExportService = routineExportService;
+    }
+
+    // Written synchronously to the response, like the user import, so long exports are not cut off
+    @GetMapping("/export")
+    public void exportRoutines(@RequestParam(required = false) String format,
+                               @RequestParam(required = false) String userId,
+                               @RequestParam(required = false) String status,
+                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant updatedAfter,
+                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant updatedBefore,
+                               HttpServletResponse response) throws IOException {
+        // Validate before the first byte so bad parameters still get a JSON 400
+        String exportFormat = RoutineExportService.format(format);
+        RoutineStatus routineStatus = RoutineExportService.status(status);
+
+        boolean csv = RoutineExportService.CSV.equals(exportFormat);
+        response.setContentType(csv ? "text/csv;charset=UTF-8" : "application/x-ndjson");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"routines." + exportFormat + "\"");
+        routineExportService.export(exportFormat, userId, routineStatus, updatedAfter, updatedBefore,
+                response.getOutputStream());
+    }
+}
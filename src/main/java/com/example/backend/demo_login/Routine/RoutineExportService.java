@@ -0,0 +1,208 @@
+package com.example.backend.demo_login.Routine;
+
+import com.example.backend.demo_login.Auth.Exception.ValidationException;
+import com.example.backend.demo_login.Component.AuditDateTime;
+import com.example.backend.demo_login.Enum.RoutineStatus;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Streams routines (not soft deleted) from a Mongo cursor straight into a response body as
+ * NDJSON or CSV. Only one cursor batch is held in memory at a time, and the output is flushed
+ * after every batch. When the client goes away the next flush fails, which ends the loop and
+ * closes the cursor on the server.
+ * <p>
+ * The embedded {@code user} is never exported: it is a copy of the user document.
+ */
+@Slf4j
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class RoutineExportService {
+
+    public static final String NDJSON = "ndjson";
+    public static final String CSV = "csv";
+
+    private static final String[] CSV_HEADER = {
+        "id", "routineId", "routineName", "description", "routineType", "routineFrequency",
+        "routineStatus", "userId", "createdBy", "updatedBy", "createdAt", "updatedAt"
+    };
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectWriter routineWriter;
+    private final int batchSize;
+
+    public RoutineExportService(MongoTemplate mongoTemplate,
+                                ObjectMapper objectMapper,
+                                @Value("${app.routine-export.batch-size:500}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        // The writer is shared by every routine, so neither close nor flush it per value
+        this.routineWriter = objectMapper.writerFor(Routine.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Normalized export format; anything but ndjson or csv is rejected before the response starts.
+     */
+    public static String format(String format) {
+        String normalized = format == null ? NDJSON : format.toLowerCase(Locale.ROOT);
+        if (!NDJSON.equals(normalized) && !CSV.equals(normalized)) {
+            throw new ValidationException("Unsupported export format: " + format);
+        }
+        return normalized;
+    }
+
+    public static RoutineStatus status(String status) {
+        if (status == null || status.isBlank()) {
+            return null;
+        }
+        try {
+            return RoutineStatus.valueOf(status.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Unknown routine status: " + status);
+        }
+    }
+
+    /**
+     * Filters are optional; updatedAt bounds apply to auditDateTime.updatedAt, or to createdAt for
+     * routines never updated, so an incremental pull also picks up new routines. Returns the number
+     * of routines written.
+     */
+    public long export(String format, String userId, RoutineStatus status,
+                       Instant updatedAfter, Instant updatedBefore, OutputStream out) throws IOException {
+        Query query = exportQuery(userId, status, updatedAfter, updatedBefore);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        boolean csv = CSV.equals(format);
+        if (csv) {
+            writeCsvRow(writer, CSV_HEADER);
+        }
+
+        long written = 0;
+        try (Stream<Routine> routines = mongoTemplate.stream(query, Routine.class)) {
+            Iterator<Routine> iterator = routines.iterator();
+            while (iterator.hasNext()) {
+                Routine routine = iterator.next();
+                if (csv) {
+                    writeCsvRow(writer, csvRow(routine));
+                } else {
+                    routineWriter.writeValue(writer, routine);
+                    writer.write('\n');
+                }
+                if (++written % batchSize == 0) {
+                    // Surfaces a disconnected client within one batch
+                    writer.flush();
+                }
+            }
+            writer.flush();
+        } catch (IOException e) {
+            log.info("Routine export aborted after {} routines: {}", written, e.getMessage());
+            throw e;
+        }
+        log.info("Exported {} routines as {}", written, format);
+        return written;
+    }
+
+    Query exportQuery(String userId, RoutineStatus status, Instant updatedAfter, Instant updatedBefore) {
+        // Same shape as the listing queries, so the _id-suffixed Routine indexes serve the sort
+        Criteria criteria = Criteria.where("deletedBy").is(null);
+        if (userId != null && !userId.isBlank()) {
+            criteria.and("userId").is(userId);
+        }
+        if (status != null) {
+            criteria.and("routineStatus").is(status);
+        }
+        if (updatedAfter != null || updatedBefore != null) {
+            criteria.orOperator(
+                    between(Criteria.where("auditDateTime.updatedAt"), updatedAfter, updatedBefore),
+                    between(Criteria.where("auditDateTime.updatedAt").is(null).and("auditDateTime.createdAt"),
+                            updatedAfter, updatedBefore));
+        }
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "_id"))
+                .cursorBatchSize(batchSize);
+        query.fields().exclude("user");
+        return query;
+    }
+
+    // Half-open [after, before) range on the field the criteria ends with
+    private static Criteria between(Criteria field, Instant after, Instant before) {
+        if (after != null) {
+            field.gte(after);
+        }
+        if (before != null) {
+            field.lt(before);
+        }
+        return field;
+    }
+
+    private static String[] csvRow(Routine routine) {
+        AuditDateTime audit = routine.getAuditDateTime();
+        return new String[] {
+            routine.getId(),
+            routine.getRoutineId(),
+            routine.getRoutineName(),
+            routine.getDescription(),
+            name(routine.getRoutineType()),
+            name(routine.getRoutineFrequency()),
+            name(routine.getRoutineStatus()),
+            routine.getUserId(),
+            routine.getCreatedBy(),
+            routine.getUpdatedBy(),
+            audit == null || audit.getCreatedAt() == null ? null : audit.getCreatedAt().toString(),
+            audit == null || audit.getUpdatedAt() == null ? null : audit.getUpdatedAt().toString()
+        };
+    }
+
+    private static String name(Enum<?> value) {
+        return value == null ? null : value.name();
+    }
+
+    private static void writeCsvRow(Writer writer, String[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeCsvValue(writer, values[i]);
+        }
+        writer.write("\r\n");
+    }
+
+    // RFC 4180 quoting; a leading formula character is neutralised so spreadsheets show it as text
+    private static void writeCsvValue(Writer writer, String value) throws IOException {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        char first = value.charAt(0);
+        if (first == '=' || first == '+' || first == '-' || first == '@') {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
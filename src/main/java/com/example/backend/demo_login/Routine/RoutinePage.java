@@ -0,0 +1,16 @@
+package com.example.backend.demo_login.Routine;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One page of a routine listing. {@code nextCursor} is null on the last page.
+ */
+@Data
+@Builder
+public class RoutinePage {
+    private List<Routine> routines;
+    private String nextCursor;
+}
@@ -0,0 +1,85 @@
+package com.example.backend.demo_login.Routine;
+
+import com.example.backend.demo_login.Auth.Exception.ValidationException;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Keyset pagination for routine listings, ordered by {@code _id}.
+ * <p>
+ * A page is "the next n routines with {@code _id} greater than the cursor", so every page costs
+ * the same index range scan however deep the client has paged. The cursor handed to clients is
+ * the last {@code _id} of the previous page, base64url-encoded with a version prefix so the
+ * format can change without breaking clients holding old cursors.
+ */
+@Component
+public class RoutinePager {
+
+    private static final String CURSOR_PREFIX = "r1:";
+    // Sorts before every generated ObjectId, so it selects the first page
+    private static final ObjectId FIRST_PAGE = new ObjectId(new byte[12]);
+
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public RoutinePager(@Value("${app.routines.page-size:50}") int defaultPageSize,
+                        @Value("${app.routines.max-page-size:500}") int maxPageSize) {
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * The {@code _id} to continue after, or the lowest possible one when there is no cursor.
+     */
+    public ObjectId after(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return FIRST_PAGE;
+        }
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid cursor");
+        }
+        String id = decoded.startsWith(CURSOR_PREFIX) ? decoded.substring(CURSOR_PREFIX.length()) : null;
+        if (id == null || !ObjectId.isValid(id)) {
+            throw new ValidationException("Invalid cursor");
+        }
+        return new ObjectId(id);
+    }
+
+    /**
+     * Requests one routine more than the page size, to tell whether another page follows.
+     */
+    public Pageable pageable(Integer size) {
+        if (size != null && size < 1) {
+            throw new ValidationException("Page size must be at least 1");
+        }
+        int pageSize = size == null ? defaultPageSize : Math.min(size, maxPageSize);
+        return PageRequest.of(0, pageSize + 1);
+    }
+
+    public RoutinePage page(List<Routine> fetched, Pageable pageable) {
+        int pageSize = pageable.getPageSize() - 1;
+        if (fetched.size() <= pageSize) {
+            return RoutinePage.builder().routines(fetched).build();
+        }
+        List<Routine> routines = fetched.subList(0, pageSize);
+        return RoutinePage.builder()
+                .routines(routines)
+                .nextCursor(encode(routines.get(pageSize - 1).getId()))
+                .build();
+    }
+
+    private static String encode(String id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
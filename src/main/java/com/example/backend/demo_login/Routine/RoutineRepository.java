@@ -1,6 +1,8 @@
 package com.example.backend.demo_login.Routine;
 
 import com.example.backend.demo_login.Enum.RoutineStatus;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -24,7 +26,7 @@ public interface RoutineRepository extends MongoRepository<Routine, String> {
     List<Routine> findAllNotDeleted();
     
     // Check if routine exists by routineId and userId (not soft deleted)
-    @Query("{'routineId': ?0, 'userId': ?1, 'deletedBy': null}")
+    @Query(value = "{'routineId': ?0, 'userId': ?1, 'deletedBy': null}", exists = true)
     boolean existsByRoutineIdAndUserIdAndNotDeleted(String routineId, String userId);
     
     // Find by routineId and userId (not soft deleted)
@@ -38,4 +40,20 @@ public interface RoutineRepository extends MongoRepository<Routine, String> {
     // Find routines by userId and status (not soft deleted)
     @Query("{'userId': ?0, 'routineStatus': ?1, 'deletedBy': null}")
     List<Routine> findByUserIdAndRoutineStatusAndNotDeleted(String userId, RoutineStatus status);
+    
+    // Keyset page of all routines after the given _id, in _id order (see RoutinePager)
+    @Query(value = "{'deletedBy': null, '_id': {'$gt': ?0}}", sort = "{'_id': 1}")
+    List<Routine> findPageNotDeleted(ObjectId after, Pageable pageable);
+    
+    // Keyset page of routines by userId (not soft deleted)
+    @Query(value = "{'userId': ?0, 'deletedBy': null, '_id': {'$gt': ?1}}", sort = "{'_id': 1}")
+    List<Routine> findPageByUserIdAndNotDeleted(String userId, ObjectId after, Pageable pageable);
+    
+    // Keyset page of routines by status (not soft deleted)
+    @Query(value = "{'routineStatus': ?0, 'deletedBy': null, '_id': {'$gt': ?1}}", sort = "{'_id': 1}")
+    List<Routine> findPageByRoutineStatusAndNotDeleted(RoutineStatus status, ObjectId after, Pageable pageable);
+    
+    // Keyset page of routines by userId and status (not soft deleted)
+    @Query(value = "{'userId': ?0, 'routineStatus': ?1, 'deletedBy': null, '_id': {'$gt': ?2}}", sort = "{'_id': 1}")
+    List<Routine> findPageByUserIdAndRoutineStatusAndNotDeleted(String userId, RoutineStatus status, ObjectId after, Pageable pageable);
 }
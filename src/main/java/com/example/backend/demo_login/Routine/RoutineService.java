@@ -2,15 +2,24 @@ package com.example.backend.demo_login.Routine;
 
 import com.example.backend.demo_login.Component.AuditDateTime;
 import com.example.backend.demo_login.Enum.RoutineStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.client.result.UpdateResult;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Slf4j
@@ -19,6 +28,12 @@ import java.util.UUID;
 public class RoutineService {
     
     private final RoutineRepository routineRepository;
+    private final RoutinePager routinePager;
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    
+    @Value("${app.routines.bulk-max:1000}")
+    private int bulkMaxRoutines;
     
     /**
      * Create a new routine
@@ -26,8 +41,23 @@ public class RoutineService {
     public Routine createRoutine(Routine routine) {
         log.info("Creating new routine: {}", routine.getRoutineName());
         
-        String currentUser = getCurrentUsername();
+        applyCreateDefaults(routine, getCurrentUsername());
+        
+        Routine savedRoutine = routineRepository.save(routine);
+        log.info("Routine created successfully with ID: {} and status: {}", savedRoutine.getRoutineId(), savedRoutine.getRoutineStatus());
         
+        return savedRoutine;
+    }
+    
+    /**
+     * Defaults for a new routine: generated id and routineId, DRAFT status, creation audit and owner.
+     * Shared with batch creation so both paths store the same document.
+     */
+    static void applyCreateDefaults(Routine routine, String currentUser) {
+        // Ignore a client-supplied id: keyset pages run on _id as an ObjectId, so any other id would
+        // never be listed, and saving under an existing id would replace that routine
+        routine.setId(new ObjectId().toHexString());
+
         // Generate unique routineId if not provided
         if (routine.getRoutineId() == null || routine.getRoutineId().isEmpty()) {
             routine.setRoutineId(UUID.randomUUID().toString());
@@ -46,19 +76,15 @@ public class RoutineService {
         if (routine.getUserId() == null || routine.getUserId().isEmpty()) {
             routine.setUserId(currentUser);
         }
-        
-        Routine savedRoutine = routineRepository.save(routine);
-        log.info("Routine created successfully with ID: {} and status: {}", savedRoutine.getRoutineId(), savedRoutine.getRoutineStatus());
-        
-        return savedRoutine;
     }
     
     /**
-     * Get all routines (not soft deleted)
+     * Get a page of all routines (not soft deleted)
      */
-    public List<Routine> getAllRoutines() {
+    public RoutinePage getAllRoutines(String cursor, Integer size) {
         log.info("Fetching all routines");
-        return routineRepository.findAllNotDeleted();
+        Pageable pageable = routinePager.pageable(size);
+        return routinePager.page(routineRepository.findPageNotDeleted(routinePager.after(cursor), pageable), pageable);
     }
     
     /**
@@ -70,114 +96,108 @@ public class RoutineService {
     }
     
     /**
-     * Get routines by userId
+     * Get a page of routines by userId
      */
-    public List<Routine> getRoutinesByUserId(String userId) {
+    public RoutinePage getRoutinesByUserId(String userId, String cursor, Integer size) {
         log.info("Fetching routines for user: {}", userId);
-        return routineRepository.findByUserIdAndNotDeleted(userId);
+        Pageable pageable = routinePager.pageable(size);
+        return routinePager.page(routineRepository.findPageByUserIdAndNotDeleted(
+                userId, routinePager.after(cursor), pageable), pageable);
     }
     
     /**
-     * Update routine
+     * Apply a JSON Merge Patch as one targeted findAndModify; empty if no live routine has this id
      */
-    public Optional<Routine> updateRoutine(String id, Routine routineDetails) {
-        log.info("Updating routine with ID: {}", id);
+    public Optional<Routine> updateRoutine(String id, Map<String, Object> patch) {
+        log.info("Updating routine with ID: {} fields: {}", id, patch == null ? Set.of() : patch.keySet());
         
-        return routineRepository.findByIdAndNotDeleted(id)
-                .map(existingRoutine -> {
-                    String currentUser = getCurrentUsername();
-                    
-                    // Update fields
-                    existingRoutine.setRoutineName(routineDetails.getRoutineName());
-                    existingRoutine.setDescription(routineDetails.getDescription());
-                    existingRoutine.setRoutineType(routineDetails.getRoutineType());
-                    existingRoutine.setRoutineFrequency(routineDetails.getRoutineFrequency());
-                    
-                    // Update routine status if provided
-                    if (routineDetails.getRoutineStatus() != null) {
-                        existingRoutine.setRoutineStatus(routineDetails.getRoutineStatus());
-                    }
-                    
-                    // Update audit fields
-                    existingRoutine.setUpdatedBy(currentUser);
-                    if (existingRoutine.getAuditDateTime() != null) {
-                        existingRoutine.getAuditDateTime().setUpdatedAt(Instant.now());
-                    } else {
-                        existingRoutine.setAuditDateTime(new AuditDateTime(null, Instant.now(), null));
-                    }
-                    
-                    Routine updatedRoutine = routineRepository.save(existingRoutine);
-                    log.info("Routine updated successfully: {} with status: {}", updatedRoutine.getRoutineId(), updatedRoutine.getRoutineStatus());
-                    
-                    return updatedRoutine;
-                });
+        Update update = RoutineUpdates.PATCH.toUpdate(patch, objectMapper);
+        if (update.getUpdateObject().isEmpty()) {
+            // An empty merge patch changes nothing
+            return routineRepository.findByIdAndNotDeleted(id);
+        }
+        Routine updatedRoutine = mongoTemplate.findAndModify(RoutineUpdates.live(id),
+                RoutineUpdates.touched(update, getCurrentUsername()), RoutineUpdates.RETURN_NEW, Routine.class);
+        if (updatedRoutine != null) {
+            log.info("Routine updated successfully: {} with status: {}", updatedRoutine.getRoutineId(), updatedRoutine.getRoutineStatus());
+        }
+        return Optional.ofNullable(updatedRoutine);
     }
     
     /**
-     * Update routine status
+     * Update routine status in one conditional findAndModify; empty if no live routine has this id
      */
     public Optional<Routine> updateRoutineStatus(String id, RoutineStatus newStatus) {
         log.info("Updating routine status with ID: {} to status: {}", id, newStatus);
         
-        return routineRepository.findByIdAndNotDeleted(id)
-                .map(existingRoutine -> {
-                    String currentUser = getCurrentUsername();
-                    
-                    // Update status
-                    existingRoutine.setRoutineStatus(newStatus);
-                    
-                    // Update audit fields
-                    existingRoutine.setUpdatedBy(currentUser);
-                    if (existingRoutine.getAuditDateTime() != null) {
-                        existingRoutine.getAuditDateTime().setUpdatedAt(Instant.now());
-                    } else {
-                        existingRoutine.setAuditDateTime(new AuditDateTime(null, Instant.now(), null));
-                    }
-                    
-                    Routine updatedRoutine = routineRepository.save(existingRoutine);
-                    log.info("Routine status updated successfully: {} to {}", updatedRoutine.getRoutineId(), updatedRoutine.getRoutineStatus());
-                    
-                    return updatedRoutine;
-                });
+        Routine updatedRoutine = mongoTemplate.findAndModify(RoutineUpdates.live(id),
+                RoutineUpdates.statusChange(newStatus, getCurrentUsername()), RoutineUpdates.RETURN_NEW, Routine.class);
+        if (updatedRoutine != null) {
+            log.info("Routine status updated successfully: {} to {}", updatedRoutine.getRoutineId(), updatedRoutine.getRoutineStatus());
+        }
+        return Optional.ofNullable(updatedRoutine);
+    }
+    
+    /**
+     * Move many routines to one status with a projected read and a single updateMany.
+     * Only routines of ownerId are considered unless it is null.
+     */
+    public List<RoutineStatusResult> updateRoutineStatuses(BulkRoutineStatusRequest request, String ownerId) {
+        BulkRoutineStatus.validate(request, bulkMaxRoutines);
+        log.info("Bulk updating routine status to {} for owner: {}", request.getStatus(), ownerId);
+        
+        List<Routine> candidates = mongoTemplate.find(
+                BulkRoutineStatus.candidates(request, ownerId, bulkMaxRoutines), Routine.class);
+        if (request.getFilter() != null) {
+            BulkRoutineStatus.checkFilterSize(candidates, bulkMaxRoutines);
+        }
+        List<String> ids = BulkRoutineStatus.toChange(candidates, request.getStatus());
+        Map<String, String> skipped = Map.of();
+        if (!ids.isEmpty()) {
+            String currentUser = getCurrentUsername();
+            Instant stamp = BulkRoutineStatus.stamp();
+            UpdateResult result = mongoTemplate.updateMulti(BulkRoutineStatus.targets(ids, request.getStatus()),
+                    RoutineUpdates.statusChange(request.getStatus(), currentUser, stamp), Routine.class);
+            if (result.getModifiedCount() < ids.size()) {
+                skipped = BulkRoutineStatus.skipped(ids, mongoTemplate.find(BulkRoutineStatus.reread(ids), Routine.class),
+                        request.getStatus(), currentUser, stamp);
+                log.info("Bulk status change modified {} of {} routines; {} changed concurrently",
+                        result.getModifiedCount(), ids.size(), skipped.size());
+            }
+        }
+        return BulkRoutineStatus.results(request, candidates, skipped);
     }
     
     /**
-     * Get routines by status
+     * Get a page of routines by status
      */
-    public List<Routine> getRoutinesByStatus(RoutineStatus status) {
+    public RoutinePage getRoutinesByStatus(RoutineStatus status, String cursor, Integer size) {
         log.info("Fetching routines with status: {}", status);
-        return routineRepository.findByRoutineStatusAndNotDeleted(status);
+        Pageable pageable = routinePager.pageable(size);
+        return routinePager.page(routineRepository.findPageByRoutineStatusAndNotDeleted(
+                status, routinePager.after(cursor), pageable), pageable);
     }
     
     /**
-     * Get routines by userId and status
+     * Get a page of routines by userId and status
      */
-    public List<Routine> getRoutinesByUserIdAndStatus(String userId, RoutineStatus status) {
+    public RoutinePage getRoutinesByUserIdAndStatus(String userId, RoutineStatus status, String cursor, Integer size) {
         log.info("Fetching routines for user: {} with status: {}", userId, status);
-        return routineRepository.findByUserIdAndRoutineStatusAndNotDeleted(userId, status);
+        Pageable pageable = routinePager.pageable(size);
+        return routinePager.page(routineRepository.findPageByUserIdAndRoutineStatusAndNotDeleted(
+                userId, status, routinePager.after(cursor), pageable), pageable);
     }
     
     /**
-     * Soft delete routine
+     * Soft delete routine in one conditional update; false if no live routine has this id
      */
     public boolean deleteRoutine(String id) {
         log.info("Soft deleting routine with ID: {}", id);
         
-        Optional<Routine> routineOpt = routineRepository.findByIdAndNotDeleted(id);
-        if (routineOpt.isPresent()) {
-            Routine routine = routineOpt.get();
-            String currentUser = getCurrentUsername();
-            
-            // Set soft delete fields
-            routine.setDeletedBy(currentUser);
-            if (routine.getAuditDateTime() != null) {
-                routine.getAuditDateTime().setDeletedAt(Instant.now());
-            } else {
-                routine.setAuditDateTime(new AuditDateTime(null, null, Instant.now()));
-            }
-            
-            routineRepository.save(routine);
-            log.info("Routine soft deleted successfully: {}", routine.getRoutineId());
+        UpdateResult result = mongoTemplate.updateFirst(RoutineUpdates.live(id),
+                RoutineUpdates.softDelete(getCurrentUsername()), Routine.class);
+        if (result.getMatchedCount() > 0) {
+            log.info("Routine soft deleted successfully: {}", id);
             return true;
         }
         
@@ -0,0 +1,22 @@
+package com.example.backend.demo_login.Routine;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Outcome for one routine in a bulk status change.
+ */
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RoutineStatusResult {
+    public static final String UPDATED = "UPDATED";
+    // Already had the target status; left untouched, audit fields included
+    public static final String UNCHANGED = "UNCHANGED";
+    // No live routine with this id that the caller may change
+    public static final String NOT_FOUND = "NOT_FOUND";
+
+    private String id;
+    private String outcome;
+}
@@ -0,0 +1,73 @@
+package com.example.backend.demo_login.Routine;
+
+import com.example.backend.demo_login.Enum.RoutineFrequency;
+import com.example.backend.demo_login.Enum.RoutineStatus;
+import com.example.backend.demo_login.Enum.RoutineType;
+import com.example.backend.demo_login.Utilities.MergePatch;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Targeted updates shared by the blocking and reactive routine services. Each one is a single
+ * conditional write on a live routine that only touches the fields it changes, so concurrent
+ * writers cannot lose each other's changes and the embedded user is never rewritten.
+ */
+final class RoutineUpdates {
+
+    // Return the document as it is after the update
+    static final FindAndModifyOptions RETURN_NEW = FindAndModifyOptions.options().returnNew(true);
+
+    // Fields a PATCH may change; every routine keeps a status
+    static final MergePatch PATCH = new MergePatch(Map.of(
+            "routineName", String.class,
+            "description", String.class,
+            "routineType", RoutineType.class,
+            "routineFrequency", RoutineFrequency.class,
+            "routineStatus", RoutineStatus.class),
+            Set.of("routineStatus"));
+
+    private RoutineUpdates() {
+    }
+
+    /**
+     * The routine with this id, unless it has been soft deleted.
+     */
+    static Query live(String id) {
+        return new Query(Criteria.where("id").is(id).and("deletedBy").is(null));
+    }
+
+    static Update statusChange(RoutineStatus newStatus, String currentUser) {
+        return statusChange(newStatus, currentUser, Instant.now());
+    }
+
+    /**
+     * Status change stamped with a given updatedAt, so the writer can recognise its own writes afterwards.
+     */
+    static Update statusChange(RoutineStatus newStatus, String currentUser, Instant updatedAt) {
+        return new Update()
+                .set("routineStatus", newStatus)
+                .set("updatedBy", currentUser)
+                .set("auditDateTime.updatedAt", updatedAt);
+    }
+
+    static Update softDelete(String currentUser) {
+        return new Update()
+                .set("deletedBy", currentUser)
+                .set("auditDateTime.deletedAt", Instant.now());
+    }
+
+    /**
+     * Adds the updatedBy / updatedAt audit fields to an update.
+     */
+    static Update touched(Update update, String currentUser) {
+        return update
+                .set("updatedBy", currentUser)
+                .set("auditDateTime.updatedAt", Instant.now());
+    }
+}
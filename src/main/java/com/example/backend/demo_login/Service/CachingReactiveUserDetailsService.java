@@ -0,0 +1,87 @@
+package com.example.backend.demo_login.Service;
+
+import com.example.backend.demo_login.User.ReactiveUserRepo;
+import com.example.backend.demo_login.User.UserChangedEvent;
+import com.example.backend.demo_login.UserPrincipal;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Reactive counterpart of {@link CachingUserDetailsService}, so both stacks pay for a Mongo
+ * lookup only on a cache miss. Uses the same {@code app.user-cache.*} settings and eviction on
+ * {@link UserChangedEvent}. Tokens name the username, so entries are keyed by username only.
+ * Metrics are published as reactive.user.details.
+ */
+@Slf4j
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class CachingReactiveUserDetailsService implements ReactiveUserDetailsService {
+
+    private final ReactiveUserRepo reactiveUserRepo;
+    private final boolean enabled;
+    private final Cache<String, UserDetails> cache;
+    private final Timer loadTimer;
+
+    public CachingReactiveUserDetailsService(ReactiveUserRepo reactiveUserRepo,
+                                             MeterRegistry meterRegistry,
+                                             @Value("${app.user-cache.enabled:true}") boolean enabled,
+                                             @Value("${app.user-cache.max-size:5000}") long maxSize,
+                                             @Value("${app.user-cache.ttl:300000}") long ttlMillis) {
+        this.reactiveUserRepo = reactiveUserRepo;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                .recordStats()
+                .build();
+        this.loadTimer = Timer.builder("reactive.user.details.load")
+                .description("Mongo lookups made on reactive user details cache misses")
+                .register(meterRegistry);
+        if (enabled) {
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, "reactive.user.details");
+        }
+    }
+
+    @Override
+    public Mono<UserDetails> findByUsername(String username) {
+        if (!enabled) {
+            return load(username);
+        }
+        UserDetails cached = cache.getIfPresent(username);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        // Concurrent misses for the same user may both load, which is harmless
+        return load(username).doOnNext(userDetails -> cache.put(username, userDetails));
+    }
+
+    private Mono<UserDetails> load(String username) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start();
+            return reactiveUserRepo.findByUsername(username)
+                    .<UserDetails>map(UserPrincipal::new)
+                    .doFinally(signal -> sample.stop(loadTimer));
+        });
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.getUsername() != null) {
+            cache.invalidate(event.getUsername());
+        }
+        log.debug("Evicted cached reactive principal for user: {}", event.getUsername());
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.backend.demo_login.Service;
+
+import com.example.backend.demo_login.User.UserChangedEvent;
+import com.example.backend.demo_login.Utilities.ValidationUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * Caching decorator around {@link UserService}. Principals are cached under both
+ * a username key and an email key so either login form hits the same entry.
+ * Entries are dropped on {@link UserChangedEvent}; hit ratio and load latency are
+ * published through actuator metrics as user.details.
+ * <p>
+ * Misses are loaded outside the cache: Caffeine runs a mapping function under a map bin
+ * lock, which would pin a virtual thread to its carrier for the whole Mongo round trip.
+ * Concurrent misses for the same user may both load, which is harmless.
+ */
+@Slf4j
+@Primary
+@Service
+public class CachingUserDetailsService implements UserDetailsService {
+
+    private static final String USERNAME_KEY = "u:";
+    private static final String EMAIL_KEY = "e:";
+
+    private final UserService delegate;
+    private final boolean enabled;
+    private final Cache<String, UserDetails> cache;
+    private final Timer loadTimer;
+
+    public CachingUserDetailsService(UserService delegate,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${app.user-cache.enabled:true}") boolean enabled,
+                                     @Value("${app.user-cache.max-size:5000}") long maxSize,
+                                     @Value("${app.user-cache.ttl:300000}") long ttlMillis) {
+        this.delegate = delegate;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                .recordStats()
+                .build();
+        this.loadTimer = Timer.builder("user.details.load")
+                .description("Mongo lookups made on user details cache misses")
+                .register(meterRegistry);
+        if (enabled) {
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, "user.details");
+            Gauge.builder("user.details.cache.hit.ratio", cache, c -> c.stats().hitRate())
+                    .description("Hit ratio of the cached UserDetailsService")
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public UserDetails loadUserByUsername(String usernameOrEmail) throws UsernameNotFoundException {
+        if (!enabled) {
+            return delegate.loadUserByUsername(usernameOrEmail);
+        }
+        String key = keyFor(usernameOrEmail);
+        UserDetails userDetails = cache.getIfPresent(key);
+        if (userDetails == null) {
+            userDetails = loadTimer.record(() -> delegate.loadUserByUsername(usernameOrEmail));
+            cache.put(key, userDetails);
+        }
+        // Alias the entry under its username so email logins and token lookups share it
+        cache.asMap().putIfAbsent(USERNAME_KEY + userDetails.getUsername(), userDetails);
+        return userDetails;
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.getUsername() != null) {
+            cache.invalidate(USERNAME_KEY + event.getUsername());
+        }
+        if (event.getEmail() != null) {
+            cache.invalidate(EMAIL_KEY + event.getEmail());
+        }
+        log.debug("Evicted cached principal for user: {}", event.getUsername());
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private static String keyFor(String usernameOrEmail) {
+        String normalized = ValidationUtils.normalizeUsernameOrEmail(usernameOrEmail);
+        return (ValidationUtils.isEmailLike(normalized) ? EMAIL_KEY : USERNAME_KEY) + normalized;
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.backend.demo_login.Service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Builds the application's {@link DelegatingPasswordEncoder}.
+ * <p>
+ * New hashes use {@code app.password.algorithm} (bcrypt, argon2 or pbkdf2) and carry an
+ * {@code {id}} prefix; every supported format, plus the legacy unprefixed BCrypt hashes,
+ * can still be verified. For bcrypt and argon2 the work factor is chosen at startup by timing
+ * the hash on this machine against {@code app.password.target-latency}. Both formats store
+ * their parameters in the hash, so recalibrating never breaks existing passwords.
+ * PBKDF2 does not, so its iteration count is fixed by configuration.
+ */
+@Slf4j
+@Component
+public class CalibratedPasswordEncoderFactory {
+
+    public static final String BCRYPT = "bcrypt";
+    public static final String ARGON2 = "argon2";
+    public static final String PBKDF2 = "pbkdf2";
+
+    private static final String CALIBRATION_PASSWORD = "Calibrati0n!Passw0rd";
+
+    @Value("${app.password.algorithm:bcrypt}")
+    private String algorithm;
+
+    @Value("${app.password.calibrate:true}")
+    private boolean calibrate;
+
+    @Value("${app.password.target-latency:250}")
+    private long targetLatencyMillis;
+
+    @Value("${app.password.bcrypt-cost:12}")
+    private int bcryptCost;
+
+    @Value("${app.password.bcrypt-min-cost:12}")
+    private int bcryptMinCost;
+
+    @Value("${app.password.bcrypt-max-cost:16}")
+    private int bcryptMaxCost;
+
+    @Value("${app.password.argon2-iterations:3}")
+    private int argon2Iterations;
+
+    @Value("${app.password.argon2-memory-kib:19456}")
+    private int argon2MemoryKib;
+
+    @Value("${app.password.pbkdf2-iterations:310000}")
+    private int pbkdf2Iterations;
+
+    public PasswordEncoder create() {
+        int cost = bcryptCost;
+        int iterations = argon2Iterations;
+        if (calibrate && BCRYPT.equals(algorithm)) {
+            cost = calibrateBcrypt();
+        } else if (calibrate && ARGON2.equals(algorithm)) {
+            iterations = calibrateArgon2();
+        }
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(BCRYPT, new BCryptPasswordEncoder(cost));
+        encoders.put(ARGON2, argon2(iterations));
+        encoders.put(PBKDF2, new Pbkdf2PasswordEncoder("", 16, pbkdf2Iterations,
+                Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256));
+        if (!encoders.containsKey(algorithm)) {
+            throw new IllegalStateException("Unsupported app.password.algorithm: " + algorithm);
+        }
+
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(algorithm, encoders);
+        // Hashes stored before prefixes were introduced are plain BCrypt
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        log.info("Password encoder: {} (bcrypt cost {}, argon2 iterations {}, pbkdf2 iterations {})",
+                algorithm, cost, iterations, pbkdf2Iterations);
+        return encoder;
+    }
+
+    /**
+     * Each BCrypt cost step doubles the work, so time the minimum cost and extrapolate. The minimum
+     * defaults to the fixed cost of 12, so a fast machine can only raise it.
+     */
+    private int calibrateBcrypt() {
+        long millis = Math.max(1, measure(BCryptPasswordEncoder::new, bcryptMinCost));
+        int cost = bcryptMinCost;
+        while (cost < bcryptMaxCost && millis * 2 <= targetLatencyMillis) {
+            millis *= 2;
+            cost++;
+        }
+        return cost;
+    }
+
+    /**
+     * Argon2 time grows linearly with iterations at fixed memory; OWASP recommends at least 2.
+     */
+    private int calibrateArgon2() {
+        long millis = Math.max(1, measure(this::argon2, 1));
+        return (int) Math.max(2, Math.min(32, targetLatencyMillis / millis));
+    }
+
+    private Argon2PasswordEncoder argon2(int iterations) {
+        return new Argon2PasswordEncoder(16, 32, 1, argon2MemoryKib, iterations);
+    }
+
+    // Best of three runs to keep JIT warm-up and scheduling noise out of the estimate
+    private static long measure(IntFunction<PasswordEncoder> encoderFactory, int parameter) {
+        PasswordEncoder encoder = encoderFactory.apply(parameter);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            encoder.encode(CALIBRATION_PASSWORD);
+            best = Math.min(best, (System.nanoTime() - start) / 1_000_000);
+        }
+        return best;
+    }
+}
@@ -0,0 +1,363 @@
+package com.example.backend.demo_login.Service;
+
+import com.example.backend.demo_login.Auth.Exception.InvalidTokenException;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Fast-path verifier for the HS256 tokens this service issues itself.
+ * <p>
+ * Decodes base64url segments into pooled buffers, computes HMAC-SHA256 with a pooled
+ * {@link Mac}, compares signatures in constant time and scans the payload only for
+ * {@code sub}, {@code jti}, {@code iat} and {@code exp}. No claims map or JSON tree is built.
+ * Anything outside that narrow shape (other headers, escaped strings, nbf, missing exp, ...)
+ * returns null so the caller falls back to jjwt.
+ * <p>
+ * Buffers are borrowed from a small pool rather than held in a ThreadLocal: with virtual threads
+ * every request runs on a new thread, so a ThreadLocal would build a fresh Mac per request and
+ * never reuse it.
+ */
+class Hs256FastVerifier {
+
+    // base64url of {"alg":"HS256"}, the header jjwt writes for HS256 tokens without a kid
+    static final String HS256_HEADER = "eyJhbGciOiJIUzI1NiJ9";
+
+    private static final int SIGNATURE_LENGTH = 32;
+    private static final int ENCODED_SIGNATURE_LENGTH = 43;
+    private static final int MAX_TOKEN_LENGTH = 8192;
+
+    private static final byte[] SUB = {'s', 'u', 'b'};
+    private static final byte[] JTI = {'j', 't', 'i'};
+    private static final byte[] EXP = {'e', 'x', 'p'};
+    private static final byte[] IAT = {'i', 'a', 't'};
+    private static final byte[] NBF = {'n', 'b', 'f'};
+
+    private static final int[] BASE64URL = new int[128];
+
+    static {
+        Arrays.fill(BASE64URL, -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alphabet.length(); i++) {
+            BASE64URL[alphabet.charAt(i)] = i;
+        }
+    }
+
+    private final SecretKey key;
+    // Verification never blocks, so about one set of buffers per core is ever in use at once
+    private final ArrayBlockingQueue<Buffers> pool =
+            new ArrayBlockingQueue<>(Math.max(4, Runtime.getRuntime().availableProcessors() * 2));
+
+    Hs256FastVerifier(SecretKey key) {
+        this.key = key;
+    }
+
+    /**
+     * @return the verified token, or null if the token must be verified by jjwt instead
+     * @throws InvalidTokenException if the token is definitely invalid (bad signature or expired)
+     */
+    VerifiedToken verify(String token, long nowMillis) {
+        int length = token.length();
+        if (length > MAX_TOKEN_LENGTH || !token.startsWith(HS256_HEADER)
+                || length <= HS256_HEADER.length() || token.charAt(HS256_HEADER.length()) != '.') {
+            return null;
+        }
+        int payloadStart = HS256_HEADER.length() + 1;
+        int signatureDot = token.indexOf('.', payloadStart);
+        if (signatureDot < 0 || length - signatureDot - 1 != ENCODED_SIGNATURE_LENGTH) {
+            return null;
+        }
+
+        Buffers b = pool.poll();
+        if (b == null) {
+            b = new Buffers(key);
+        }
+        try {
+            return verifyWith(b, token, nowMillis, payloadStart, signatureDot);
+        } finally {
+            pool.offer(b);
+        }
+    }
+
+    private static VerifiedToken verifyWith(Buffers b, String token, long nowMillis, int payloadStart, int signatureDot) {
+        int length = token.length();
+        // Signing input is the ASCII text "header.payload"
+        b.ensureInput(signatureDot);
+        for (int i = 0; i < signatureDot; i++) {
+            char c = token.charAt(i);
+            if (c > 127) {
+                return null;
+            }
+            b.input[i] = (byte) c;
+        }
+        if (decode(token, signatureDot + 1, length, b.signature) != SIGNATURE_LENGTH) {
+            return null;
+        }
+        try {
+            b.mac.update(b.input, 0, signatureDot);
+            b.mac.doFinal(b.expected, 0);
+        } catch (GeneralSecurityException e) {
+            // The Mac goes back to the pool, so leave it ready for the next token
+            b.mac.reset();
+            return null;
+        }
+        int diff = 0;
+        for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+            diff |= b.expected[i] ^ b.signature[i];
+        }
+        if (diff != 0) {
+            throw new InvalidTokenException("Invalid token");
+        }
+
+        b.ensurePayload(signatureDot - payloadStart);
+        int payloadLength = decode(token, payloadStart, signatureDot, b.payload);
+        if (payloadLength < 0 || !b.scan(payloadLength)) {
+            return null;
+        }
+        long expirationMillis = b.exp * 1000;
+        if (nowMillis > expirationMillis) {
+            throw new InvalidTokenException("Token has expired");
+        }
+        return VerifiedToken.builder()
+                .token(token)
+                .id(b.jtiStart < 0 ? null : new String(b.payload, b.jtiStart, b.jtiEnd - b.jtiStart, StandardCharsets.UTF_8))
+                .subject(b.subStart < 0 ? null : new String(b.payload, b.subStart, b.subEnd - b.subStart, StandardCharsets.UTF_8))
+                .issuedAt(b.iat < 0 ? null : new Date(b.iat * 1000))
+                .expiration(new Date(expirationMillis))
+                .sharedSecret(true)
+                .build();
+    }
+
+    /**
+     * Decode unpadded base64url from token[start, end) into out. Returns the byte count or -1.
+     */
+    private static int decode(String token, int start, int end, byte[] out) {
+        int length = end - start;
+        if (length % 4 == 1) {
+            return -1;
+        }
+        int decodedLength = length / 4 * 3 + Math.max(0, length % 4 - 1);
+        if (decodedLength > out.length) {
+            return -1;
+        }
+        int o = 0;
+        int accumulator = 0;
+        int bits = 0;
+        for (int i = start; i < end; i++) {
+            char c = token.charAt(i);
+            int value = c < 128 ? BASE64URL[c] : -1;
+            if (value < 0) {
+                return -1;
+            }
+            accumulator = (accumulator << 6) | value;
+            bits += 6;
+            if (bits >= 8) {
+                bits -= 8;
+                out[o++] = (byte) (accumulator >> bits);
+            }
+        }
+        return o;
+    }
+
+    private static final class Buffers {
+        private final Mac mac;
+        private final byte[] signature = new byte[SIGNATURE_LENGTH];
+        private final byte[] expected = new byte[SIGNATURE_LENGTH];
+        private byte[] input = new byte[512];
+        private byte[] payload = new byte[512];
+
+        // Scan results, offsets into payload; -1 when absent
+        private int subStart;
+        private int subEnd;
+        private int jtiStart;
+        private int jtiEnd;
+        private long exp;
+        private long iat;
+
+        Buffers(SecretKey key) {
+            try {
+                this.mac = Mac.getInstance("HmacSHA256");
+                this.mac.init(key);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256 not available", e);
+            }
+        }
+
+        void ensureInput(int length) {
+            if (input.length < length) {
+                input = new byte[Math.max(length, input.length * 2)];
+            }
+        }
+
+        void ensurePayload(int encodedLength) {
+            int decodedLength = encodedLength / 4 * 3 + 3;
+            if (payload.length < decodedLength) {
+                payload = new byte[Math.max(decodedLength, payload.length * 2)];
+            }
+        }
+
+        /**
+         * Scan a flat JSON object for sub/jti (plain strings) and exp/iat (integers).
+         * Other members are skipped. Returns false for anything the fast path does not handle.
+         */
+        boolean scan(int length) {
+            subStart = subEnd = jtiStart = jtiEnd = -1;
+            exp = iat = -1;
+            byte[] p = payload;
+            int i = skipWhitespace(p, 0, length);
+            if (i >= length || p[i] != '{') {
+                return false;
+            }
+            i = skipWhitespace(p, i + 1, length);
+            if (i < length && p[i] == '}') {
+                return false;
+            }
+            while (i < length) {
+                if (p[i] != '"') {
+                    return false;
+                }
+                int keyStart = i + 1;
+                int keyEnd = plainStringEnd(p, keyStart, length);
+                if (keyEnd < 0) {
+                    return false;
+                }
+                i = skipWhitespace(p, keyEnd + 1, length);
+                if (i >= length || p[i] != ':') {
+                    return false;
+                }
+                i = skipWhitespace(p, i + 1, length);
+                if (i >= length) {
+                    return false;
+                }
+
+                if (keyIs(p, keyStart, keyEnd, SUB) || keyIs(p, keyStart, keyEnd, JTI)) {
+                    boolean isSub = p[keyStart] == 's';
+                    if (p[i] != '"' || (isSub ? subStart : jtiStart) >= 0) {
+                        return false;
+                    }
+                    int end = plainStringEnd(p, i + 1, length);
+                    if (end < 0) {
+                        return false;
+                    }
+                    if (isSub) {
+                        subStart = i + 1;
+                        subEnd = end;
+                    } else {
+                        jtiStart = i + 1;
+                        jtiEnd = end;
+                    }
+                    i = end + 1;
+                } else if (keyIs(p, keyStart, keyEnd, EXP) || keyIs(p, keyStart, keyEnd, IAT)) {
+                    boolean isExp = p[keyStart] == 'e';
+                    if ((isExp ? exp : iat) >= 0) {
+                        return false;
+                    }
+                    long value = 0;
+                    int start = i;
+                    while (i < length && p[i] >= '0' && p[i] <= '9' && i - start < 15) {
+                        value = value * 10 + (p[i] - '0');
+                        i++;
+                    }
+                    if (i == start) {
+                        return false;
+                    }
+                    if (isExp) {
+                        exp = value;
+                    } else {
+                        iat = value;
+                    }
+                } else if (keyIs(p, keyStart, keyEnd, NBF)) {
+                    return false;
+                } else {
+                    i = skipValue(p, i, length);
+                    if (i < 0) {
+                        return false;
+                    }
+                }
+
+                i = skipWhitespace(p, i, length);
+                if (i >= length) {
+                    return false;
+                }
+                if (p[i] == '}') {
+                    // Only whitespace may follow the object; jjwt requires an exp to enforce expiry
+                    return skipWhitespace(p, i + 1, length) == length && exp >= 0;
+                }
+                if (p[i] != ',') {
+                    return false;
+                }
+                i = skipWhitespace(p, i + 1, length);
+            }
+            return false;
+        }
+
+        private static boolean keyIs(byte[] p, int start, int end, byte[] key) {
+            if (end - start != key.length) {
+                return false;
+            }
+            for (int i = 0; i < key.length; i++) {
+                if (p[start + i] != key[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // End index (closing quote) of a string without escapes, or -1
+        private static int plainStringEnd(byte[] p, int i, int length) {
+            while (i < length) {
+                byte c = p[i];
+                if (c == '"') {
+                    return i;
+                }
+                if (c == '\\' || (c >= 0 && c < 0x20)) {
+                    return -1;
+                }
+                i++;
+            }
+            return -1;
+        }
+
+        private static int skipValue(byte[] p, int i, int length) {
+            int depth = 0;
+            while (i < length) {
+                byte c = p[i];
+                if (c == '"') {
+                    i++;
+                    while (i < length && p[i] != '"') {
+                        i += p[i] == '\\' ? 2 : 1;
+                    }
+                    if (i >= length) {
+                        return -1;
+                    }
+                } else if (c == '{' || c == '[') {
+                    depth++;
+                } else if (c == '}' || c == ']') {
+                    if (depth == 0) {
+                        return i;
+                    }
+                    depth--;
+                } else if (c == ',' && depth == 0) {
+                    return i;
+                }
+                i++;
+                if (depth == 0 && (c == '"' || c == '}' || c == ']')) {
+                    return i;
+                }
+            }
+            return depth == 0 ? i : -1;
+        }
+
+        private static int skipWhitespace(byte[] p, int i, int length) {
+            while (i < length && (p[i] == ' ' || p[i] == '\t' || p[i] == '\n' || p[i] == '\r')) {
+                i++;
+            }
+            return i;
+        }
+    }
+}
@@ -1,49 +1,76 @@
 package com.example.backend.demo_login.Service;
 
 import com.example.backend.demo_login.Auth.Exception.InvalidTokenException;
+import com.example.backend.demo_login.Signing.SigningKey;
+import com.example.backend.demo_login.Signing.SigningKeyRing;
+import com.example.backend.demo_login.User.Users;
+import com.example.backend.demo_login.UserPrincipal;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jws;
 import io.jsonwebtoken.JwtException;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
-import java.security.NoSuchAlgorithmException;
-import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 import java.util.function.Function;
 
 import io.jsonwebtoken.Jwts;
 
-import javax.crypto.KeyGenerator;
-import javax.crypto.SecretKey;
-
 @Slf4j
 @Service
 public class JWTService {
 
-    @Value("${jwt.secret:}")
-    private String secretKey;
-    
+    private final SigningKeyRing signingKeyRing;
+
     @Value("${jwt.expiration:3600000}") // `1 hour default
     private long jwtExpiration;
 
+    /*
+     * Stateless principal mode: tokens carry userId and roles, and JwtFilter builds the principal from
+     * them instead of querying Mongo. Role or account changes are only picked up once a token is older
+     * than the freshness window (or a new token is issued), so keep the window short.
+     */
+    @Value("${jwt.stateless-principal.enabled:false}")
+    private boolean statelessPrincipal;
+
+    @Value("${jwt.stateless-principal.freshness-window:900000}") // 15 minutes default
+    private long statelessFreshnessWindow;
+
+    // Fast HS256 path that skips building jjwt Claims; unusual tokens still go through jjwt.
+    // Not used in stateless principal mode, which needs the full claim set.
+    @Value("${jwt.fast-verifier.enabled:false}")
+    private boolean fastVerifierEnabled;
+
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLES = "roles";
+
+    // Built once at startup; immutable and safe to share across request threads.
+    // Keys are resolved per token (by kid) from the key ring.
+    private JwtParser jwtParser;
+    private Hs256FastVerifier fastVerifier;
+
+    public JWTService(SigningKeyRing signingKeyRing) {
+        this.signingKeyRing = signingKeyRing;
+    }
+
     @PostConstruct
     public void init() {
-        if (secretKey == null || secretKey.trim().isEmpty()) {
-            log.warn("JWT secret not configured, generating random secret. This is not recommended for production!");
-            try {
-                KeyGenerator keyGen = KeyGenerator.getInstance("HmacSHA256");
-                SecretKey sk = keyGen.generateKey();
-                this.secretKey = Base64.getEncoder().encodeToString(sk.getEncoded());
-            } catch (NoSuchAlgorithmException e) {
-                throw new RuntimeException("Failed to generate JWT secret key", e);
-            }
+        this.jwtParser = Jwts.parser()
+                .keyLocator(signingKeyRing.keyLocator())
+                .build();
+        if (fastVerifierEnabled && !statelessPrincipal) {
+            this.fastVerifier = new Hs256FastVerifier(signingKeyRing.getHmacKey());
         }
     }
 
@@ -52,19 +79,59 @@ public class JWTService {
         return createToken(claims, username);
     }
 
+    public String generateToken(Users user) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_USER_ID, user.getUserId());
+        claims.put(CLAIM_ROLES, user.getRoles());
+        return createToken(claims, user.getUsername());
+    }
+
     private String createToken(Map<String, Object> claims, String username) {
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .claims(claims)
+                .id(UUID.randomUUID().toString())
                 .subject(username)
                 .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSigningKey())
-                .compact();
+                .expiration(new Date(System.currentTimeMillis() + jwtExpiration));
+        SigningKey activeKey = signingKeyRing.getActiveKey();
+        if (activeKey != null) {
+            return builder.header().keyId(activeKey.getKid()).and()
+                    .signWith(activeKey.getPrivateKey())
+                    .compact();
+        }
+        return builder.signWith(signingKeyRing.getHmacKey()).compact();
     }
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = Base64.getDecoder().decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    /**
+     * Verify the signature once and return subject, expiry and claims together.
+     * Expired or malformed tokens are rejected with {@link InvalidTokenException}.
+     */
+    public VerifiedToken verify(String token) {
+        // The fast path only handles kid-less HS256 tokens, which asymmetric mode may no longer accept
+        if (fastVerifier != null && acceptsSharedSecret()) {
+            VerifiedToken verifiedToken = fastVerifier.verify(token, System.currentTimeMillis());
+            if (verifiedToken != null) {
+                return verifiedToken;
+            }
+        }
+        Jws<Claims> jws = parseSignedClaims(token);
+        Claims claims = jws.getPayload();
+        return VerifiedToken.builder()
+                .token(token)
+                .id(claims.getId())
+                .subject(claims.getSubject())
+                .issuedAt(claims.getIssuedAt())
+                .expiration(claims.getExpiration())
+                .claims(claims)
+                .sharedSecret(jws.getHeader().getKeyId() == null)
+                .build();
+    }
+
+    /**
+     * Whether tokens signed with the shared HS256 secret (no kid) are still accepted.
+     */
+    public boolean acceptsSharedSecret() {
+        return signingKeyRing.acceptsHs256();
     }
 
     public String extractUsername(String token) {
@@ -85,12 +152,12 @@ public class JWTService {
     }
 
     private Claims extractAllClaims(String token) {
+        return parseSignedClaims(token).getPayload();
+    }
+
+    private Jws<Claims> parseSignedClaims(String token) {
         try {
-            return Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+            return jwtParser.parseSignedClaims(token);
         } catch (ExpiredJwtException e) {
             throw new InvalidTokenException("Token has expired", e);
         } catch (JwtException e) {
@@ -111,6 +178,37 @@ public class JWTService {
         }
     }
 
+    public boolean validateToken(VerifiedToken verifiedToken, UserDetails userDetails) {
+        return verifiedToken.getSubject() != null
+                && verifiedToken.getSubject().equals(userDetails.getUsername())
+                && !verifiedToken.isExpired();
+    }
+
+    /**
+     * Build the principal straight from token claims when stateless principal mode is on and the
+     * token is still inside the freshness window. Empty means the caller must load the user.
+     */
+    public Optional<UserDetails> principalFromClaims(VerifiedToken verifiedToken) {
+        if (!statelessPrincipal || verifiedToken.getIssuedAt() == null || verifiedToken.getClaims() == null) {
+            return Optional.empty();
+        }
+        if (System.currentTimeMillis() - verifiedToken.getIssuedAt().getTime() > statelessFreshnessWindow) {
+            return Optional.empty();
+        }
+        Object roles = verifiedToken.getClaims().get(CLAIM_ROLES);
+        String userId = verifiedToken.getClaim(CLAIM_USER_ID, String.class);
+        if (!(roles instanceof List<?> roleList) || userId == null) {
+            // Token issued before claims were embedded
+            return Optional.empty();
+        }
+        Users user = Users.builder()
+                .userId(userId)
+                .username(verifiedToken.getSubject())
+                .roles(roleList.stream().map(String::valueOf).toList())
+                .build();
+        return Optional.of(new UserPrincipal(user));
+    }
+
     public long getExpirationTime() {
         return jwtExpiration / 1000; // Return in seconds
     }
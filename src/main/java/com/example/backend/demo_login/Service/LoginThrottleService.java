@@ -0,0 +1,215 @@
+package com.example.backend.demo_login.Service;
+
+import com.example.backend.demo_login.Auth.Exception.TooManyRequestsException;
+import com.example.backend.demo_login.Utilities.ValidationUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Login throttling applied before any user lookup or password hashing.
+ * <p>
+ * Every normalized username and every client IP gets a token bucket; repeated failures
+ * additionally block the key with exponential backoff. Buckets live in lock-striped,
+ * size-bounded LRU maps and idle buckets are swept periodically, so memory stays bounded
+ * under credential stuffing with random usernames.
+ * <p>
+ * The IP key is {@code getRemoteAddr()}, which is only the client's address if the proxy in front
+ * is trusted to set it: {@code server.forward-headers-strategy=native} with the proxy matched by
+ * {@code server.tomcat.remoteip.internal-proxies}. Otherwise all clients share the proxy's bucket.
+ */
+@Slf4j
+@Service
+public class LoginThrottleService {
+
+    private final KeyedThrottle accountThrottle;
+    private final KeyedThrottle ipThrottle;
+    private final long idleTimeoutMillis;
+    private final Counter accountRejections;
+    private final Counter ipRejections;
+
+    public LoginThrottleService(MeterRegistry meterRegistry,
+                                @Value("${app.login-throttle.stripes:64}") int stripes,
+                                @Value("${app.login-throttle.max-entries:100000}") int maxEntries,
+                                @Value("${app.login-throttle.idle-timeout:900000}") long idleTimeoutMillis,
+                                @Value("${app.login-throttle.account.capacity:5}") int accountCapacity,
+                                @Value("${app.login-throttle.account.refill-per-minute:5}") int accountRefill,
+                                @Value("${app.login-throttle.ip.capacity:30}") int ipCapacity,
+                                @Value("${app.login-throttle.ip.refill-per-minute:30}") int ipRefill,
+                                @Value("${app.login-throttle.backoff.threshold:3}") int backoffThreshold,
+                                @Value("${app.login-throttle.backoff.base:1000}") long backoffBase,
+                                @Value("${app.login-throttle.backoff.max:900000}") long backoffMax) {
+        this.accountThrottle = new KeyedThrottle(stripes, maxEntries, accountCapacity, accountRefill,
+                backoffThreshold, backoffBase, backoffMax);
+        this.ipThrottle = new KeyedThrottle(stripes, maxEntries, ipCapacity, ipRefill,
+                backoffThreshold, backoffBase, backoffMax);
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.accountRejections = Counter.builder("login.throttle.rejected").tag("key", "account").register(meterRegistry);
+        this.ipRejections = Counter.builder("login.throttle.rejected").tag("key", "ip").register(meterRegistry);
+    }
+
+    /**
+     * Take one attempt from the account and IP buckets or throw {@link TooManyRequestsException}.
+     */
+    public void checkAllowed(String usernameOrEmail, String clientIp) {
+        long now = System.currentTimeMillis();
+        long waitMillis = accountThrottle.tryAcquire(ValidationUtils.normalizeUsernameOrEmail(usernameOrEmail), now);
+        if (waitMillis > 0) {
+            accountRejections.increment();
+            log.warn("Login throttled for account: {}", usernameOrEmail);
+            throw tooMany(waitMillis);
+        }
+        if (clientIp != null) {
+            waitMillis = ipThrottle.tryAcquire(clientIp, now);
+            if (waitMillis > 0) {
+                ipRejections.increment();
+                log.warn("Login throttled for IP: {}", clientIp);
+                throw tooMany(waitMillis);
+            }
+        }
+    }
+
+    public void recordFailure(String usernameOrEmail, String clientIp) {
+        long now = System.currentTimeMillis();
+        accountThrottle.recordFailure(ValidationUtils.normalizeUsernameOrEmail(usernameOrEmail), now);
+        if (clientIp != null) {
+            ipThrottle.recordFailure(clientIp, now);
+        }
+    }
+
+    /**
+     * A successful login clears the account's backoff. IP failures are left to decay so that
+     * one valid account cannot be used to reset a stuffing run from the same address.
+     */
+    public void recordSuccess(String usernameOrEmail) {
+        accountThrottle.reset(ValidationUtils.normalizeUsernameOrEmail(usernameOrEmail));
+    }
+
+    @Scheduled(fixedDelayString = "${app.login-throttle.sweep-interval:60000}")
+    public void evictIdleBuckets() {
+        long now = System.currentTimeMillis();
+        int evicted = accountThrottle.evictIdle(now, idleTimeoutMillis) + ipThrottle.evictIdle(now, idleTimeoutMillis);
+        if (evicted > 0) {
+            log.debug("Evicted {} idle login throttle buckets", evicted);
+        }
+    }
+
+    private static TooManyRequestsException tooMany(long waitMillis) {
+        return new TooManyRequestsException("Too many login attempts, please retry later",
+                Math.max(1, (waitMillis + 999) / 1000));
+    }
+
+    /**
+     * Token buckets with failure backoff, striped over independently locked LRU maps.
+     */
+    static final class KeyedThrottle {
+        private final Map<String, Bucket>[] stripes;
+        private final int capacity;
+        private final double refillPerMilli;
+        private final int backoffThreshold;
+        private final long backoffBase;
+        private final long backoffMax;
+
+        @SuppressWarnings("unchecked")
+        KeyedThrottle(int stripeCount, int maxEntries, int capacity, int refillPerMinute,
+                      int backoffThreshold, long backoffBase, long backoffMax) {
+            int perStripe = Math.max(1, maxEntries / stripeCount);
+            this.stripes = new Map[stripeCount];
+            for (int i = 0; i < stripeCount; i++) {
+                stripes[i] = new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+                        return size() > perStripe;
+                    }
+                };
+            }
+            this.capacity = capacity;
+            this.refillPerMilli = refillPerMinute / 60000.0;
+            this.backoffThreshold = backoffThreshold;
+            this.backoffBase = backoffBase;
+            this.backoffMax = backoffMax;
+        }
+
+        /**
+         * @return 0 if allowed, otherwise the number of milliseconds until the next attempt is allowed
+         */
+        long tryAcquire(String key, long now) {
+            Map<String, Bucket> stripe = stripeFor(key);
+            synchronized (stripe) {
+                Bucket bucket = stripe.computeIfAbsent(key, k -> new Bucket(capacity, now));
+                bucket.lastSeen = now;
+                if (bucket.blockedUntil > now) {
+                    return bucket.blockedUntil - now;
+                }
+                bucket.tokens = Math.min(capacity, bucket.tokens + (now - bucket.lastRefill) * refillPerMilli);
+                bucket.lastRefill = now;
+                if (bucket.tokens < 1) {
+                    return (long) Math.ceil((1 - bucket.tokens) / refillPerMilli);
+                }
+                bucket.tokens -= 1;
+                return 0;
+            }
+        }
+
+        void recordFailure(String key, long now) {
+            Map<String, Bucket> stripe = stripeFor(key);
+            synchronized (stripe) {
+                Bucket bucket = stripe.computeIfAbsent(key, k -> new Bucket(capacity, now));
+                bucket.lastSeen = now;
+                bucket.failures++;
+                if (bucket.failures >= backoffThreshold) {
+                    int exponent = Math.min(30, bucket.failures - backoffThreshold);
+                    bucket.blockedUntil = now + Math.min(backoffMax, backoffBase << exponent);
+                }
+            }
+        }
+
+        void reset(String key) {
+            Map<String, Bucket> stripe = stripeFor(key);
+            synchronized (stripe) {
+                Bucket bucket = stripe.get(key);
+                if (bucket != null) {
+                    bucket.failures = 0;
+                    bucket.blockedUntil = 0;
+                }
+            }
+        }
+
+        int evictIdle(long now, long idleTimeoutMillis) {
+            int evicted = 0;
+            for (Map<String, Bucket> stripe : stripes) {
+                synchronized (stripe) {
+                    int before = stripe.size();
+                    stripe.values().removeIf(b -> now - b.lastSeen > idleTimeoutMillis && b.blockedUntil <= now);
+                    evicted += before - stripe.size();
+                }
+            }
+            return evicted;
+        }
+
+        private Map<String, Bucket> stripeFor(String key) {
+            int hash = key.hashCode();
+            return stripes[Math.floorMod(hash ^ (hash >>> 16), stripes.length)];
+        }
+    }
+
+    private static final class Bucket {
+        private double tokens;
+        private long lastRefill;
+        private long lastSeen;
+        private int failures;
+        private long blockedUntil;
+
+        Bucket(int capacity, long now) {
+            this.tokens = capacity;
+            this.lastRefill = now;
+            this.lastSeen = now;
+        }
+    }
+}
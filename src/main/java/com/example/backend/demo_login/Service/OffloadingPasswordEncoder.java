@@ -0,0 +1,39 @@
+package com.example.backend.demo_login.Service;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Delegates the expensive encode/matches calls to the {@link PasswordHashingService} pool.
+ */
+public class OffloadingPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final PasswordHashingService hashingService;
+
+    public OffloadingPasswordEncoder(PasswordEncoder delegate, PasswordHashingService hashingService) {
+        this.delegate = delegate;
+        this.hashingService = hashingService;
+    }
+
+    /**
+     * The wrapped encoder, for callers that manage their own hashing threads.
+     */
+    public PasswordEncoder getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return hashingService.run(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return hashingService.run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
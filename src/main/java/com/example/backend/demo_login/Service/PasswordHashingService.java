@@ -0,0 +1,106 @@
+package com.example.backend.demo_login.Service;
+
+import com.example.backend.demo_login.Auth.Exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs password hashing and verification on a bounded, core-sized pool instead of on
+ * request threads. When the queue is full (or a task waits too long) the caller gets a
+ * {@link ServiceBusyException}, which is answered with 503 and Retry-After, so a login
+ * storm only degrades the endpoints that hash passwords.
+ */
+@Slf4j
+@Service
+public class PasswordHashingService {
+
+    private final ThreadPoolExecutor executor;
+    private final long maxWaitMillis;
+    private final long retryAfterSeconds;
+    private final Timer waitTimer;
+    private final Counter rejectedCounter;
+
+    public PasswordHashingService(MeterRegistry meterRegistry,
+                                  @Value("${app.password-hashing.threads:0}") int threads,
+                                  @Value("${app.password-hashing.queue-capacity:64}") int queueCapacity,
+                                  @Value("${app.password-hashing.max-wait:5000}") long maxWaitMillis,
+                                  @Value("${app.password-hashing.retry-after:1}") long retryAfterSeconds) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("password-hash-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.maxWaitMillis = maxWaitMillis;
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        this.waitTimer = Timer.builder("password.hashing.wait")
+                .description("Time hashing tasks spend queued before a worker picks them up")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("password.hashing.rejected")
+                .description("Hashing tasks rejected because the queue was full or the wait too long")
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.queue.depth", executor, e -> e.getQueue().size())
+                .description("Hashing tasks waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Hashing tasks currently running")
+                .register(meterRegistry);
+        log.info("Password hashing pool: {} threads, queue capacity {}", poolSize, queueCapacity);
+    }
+
+    public <T> T run(Supplier<T> task) {
+        long enqueuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                waitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                return task.get();
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw busy();
+        }
+
+        try {
+            return future.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedCounter.increment();
+            throw busy();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw busy();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private ServiceBusyException busy() {
+        return new ServiceBusyException("Server is busy, please retry shortly", retryAfterSeconds);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.backend.demo_login.Service;
+
+import com.example.backend.demo_login.Auth.Exception.UserAlreadyExistsException;
+import com.example.backend.demo_login.Auth.RegisterRequest;
+import com.example.backend.demo_login.Auth.UserImportResult;
+import com.example.backend.demo_login.Indexing.IndexManager;
+import com.example.backend.demo_login.User.Users;
+import com.example.backend.demo_login.Utilities.ValidationUtils;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteError;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Bulk user import from NDJSON, one {@link RegisterRequest} per line.
+ * <p>
+ * Records are processed in batches: validated with the registration rules, hashed in
+ * parallel on a dedicated pool (so imports never take slots from the login hashing pool),
+ * and inserted with one unordered bulk write per batch. Duplicates are reported by the
+ * unique indexes per record, so an import is refused until those indexes are confirmed. One {@link UserImportResult} line is written per input line
+ * and flushed after every batch.
+ */
+@Slf4j
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class UserImportService {
+
+    private final MongoTemplate mongoTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final IndexManager indexManager;
+    private final ExecutorService hashingExecutor;
+    private final int batchSize;
+
+    public UserImportService(MongoTemplate mongoTemplate,
+                             PasswordEncoder passwordEncoder,
+                             ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry,
+                             IndexManager indexManager,
+                             @Value("${app.user-import.batch-size:1000}") int batchSize,
+                             @Value("${app.user-import.hash-threads:0}") int hashThreads) {
+        this.mongoTemplate = mongoTemplate;
+        // Hash on our own pool; the offloading wrapper would queue behind (and starve) logins
+        this.passwordEncoder = passwordEncoder instanceof OffloadingPasswordEncoder offloading
+                ? offloading.getDelegate()
+                : passwordEncoder;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.indexManager = indexManager;
+        this.batchSize = batchSize;
+        int threads = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+        this.hashingExecutor = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("user-import-hash-"));
+    }
+
+    public void importUsers(InputStream in, OutputStream out) throws IOException {
+        // Duplicates are only reported if the unique indexes exist; refuse before writing anything
+        indexManager.requireUniqueUserIndexes();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        List<PendingRecord> batch = new ArrayList<>(batchSize);
+        long lineNumber = 0;
+        long created = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            batch.add(new PendingRecord(lineNumber, line));
+            if (batch.size() >= batchSize) {
+                created += processBatch(batch, out);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            created += processBatch(batch, out);
+        }
+        log.info("Bulk user import finished: {} lines, {} users created", lineNumber, created);
+    }
+
+    private long processBatch(List<PendingRecord> batch, OutputStream out) throws IOException {
+        UserImportResult[] results = new UserImportResult[batch.size()];
+        List<Integer> positions = new ArrayList<>();
+        List<CompletableFuture<Users>> hashed = new ArrayList<>();
+
+        for (int i = 0; i < batch.size(); i++) {
+            PendingRecord record = batch.get(i);
+            RegisterRequest request;
+            try {
+                request = objectMapper.readValue(record.json, RegisterRequest.class);
+            } catch (JsonProcessingException e) {
+                results[i] = result(record, null, UserImportResult.INVALID, "Malformed JSON");
+                continue;
+            }
+            String error = ValidationUtils.registrationError(request.getUsername(), request.getEmail(), request.getPassword());
+            if (error != null) {
+                results[i] = result(record, request.getUsername(), UserImportResult.INVALID, error);
+                continue;
+            }
+            positions.add(i);
+            hashed.add(CompletableFuture.supplyAsync(() -> toUser(request), hashingExecutor));
+        }
+
+        long created = 0;
+        if (!hashed.isEmpty()) {
+            List<Users> users = hashed.stream().map(CompletableFuture::join).toList();
+            boolean[] failed = new boolean[users.size()];
+            try {
+                mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Users.class).insert(users).execute();
+            } catch (BulkOperationException e) {
+                for (BulkWriteError writeError : e.getErrors()) {
+                    int index = writeError.getIndex();
+                    failed[index] = true;
+                    PendingRecord record = batch.get(positions.get(index));
+                    results[positions.get(index)] = writeError.getCode() == 11000
+                            ? result(record, users.get(index).getUsername(), UserImportResult.DUPLICATE,
+                                    UserAlreadyExistsException.forDuplicateKey(writeError.getMessage()).getMessage())
+                            : result(record, users.get(index).getUsername(), UserImportResult.FAILED, writeError.getMessage());
+                }
+            }
+            for (int i = 0; i < users.size(); i++) {
+                if (!failed[i]) {
+                    created++;
+                    results[positions.get(i)] = result(batch.get(positions.get(i)), users.get(i).getUsername(),
+                            UserImportResult.CREATED, null);
+                }
+            }
+        }
+
+        for (UserImportResult result : results) {
+            meterRegistry.counter("user.import.records", "status", result.getStatus()).increment();
+            out.write(objectMapper.writeValueAsBytes(result));
+            out.write('\n');
+        }
+        out.flush();
+        return created;
+    }
+
+    // Same document register() builds
+    private Users toUser(RegisterRequest request) {
+        return Users.builder()
+                .userId(request.getUsername() + ":" + request.getEmail())
+                .username(request.getUsername().trim().toLowerCase(Locale.ROOT))
+                .email(request.getEmail().trim().toLowerCase(Locale.ROOT))
+                .password(passwordEncoder.encode(request.getPassword()))
+                .roles(Arrays.asList("USER"))
+                .build();
+    }
+
+    private static UserImportResult result(PendingRecord record, String username, String status, String message) {
+        return UserImportResult.builder()
+                .line(record.line)
+                .username(username)
+                .status(status)
+                .message(message)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashingExecutor.shutdown();
+    }
+
+    @AllArgsConstructor
+    private static final class PendingRecord {
+        private final long line;
+        private final String json;
+    }
+}
@@ -1,29 +1,77 @@
 package com.example.backend.demo_login.Service;
 
 import com.example.backend.demo_login.UserPrincipal;
+import com.example.backend.demo_login.User.UserChangedEvent;
 import com.example.backend.demo_login.User.UserRepo;
 import com.example.backend.demo_login.User.Users;
+import com.example.backend.demo_login.Utilities.ValidationUtils;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
+
 //UserDetails Service
 
+@Slf4j
 @Service
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     private UserRepo userRepo;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Override
     public UserDetails loadUserByUsername(String usernameOrEmail) throws UsernameNotFoundException {
-        Users user = userRepo.findByUsernameOrEmail(usernameOrEmail)
+        Users user = findByUsernameOrEmail(usernameOrEmail)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with username/email: " + usernameOrEmail));
 
         return new UserPrincipal(user);
     }
+
+    /**
+     * Single indexed lookup: input containing '@' goes to the email index, anything else to the username index.
+     */
+    public Optional<Users> findByUsernameOrEmail(String usernameOrEmail) {
+        String normalized = ValidationUtils.normalizeUsernameOrEmail(usernameOrEmail);
+        return ValidationUtils.isEmailLike(normalized)
+                ? userRepo.findByEmail(normalized)
+                : userRepo.findByUsername(normalized);
+    }
+
+    /**
+     * Called by DaoAuthenticationProvider after a successful login against an outdated hash, and
+     * by a password change. Only the password field is rewritten.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        Users updated = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("username").is(userDetails.getUsername())),
+                Update.update("password", newPassword),
+                FindAndModifyOptions.options().returnNew(true),
+                Users.class);
+        if (updated == null) {
+            return userDetails;
+        }
+        eventPublisher.publishEvent(new UserChangedEvent(updated));
+        log.info("Stored new password hash for user: {}", updated.getUsername());
+        return new UserPrincipal(updated);
+    }
     /*@Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         Users user = userRepo.findByUsername(username);
@@ -2,31 +2,44 @@ package com.example.backend.demo_login.Service;
 
 import com.example.backend.demo_login.Auth.AuthRequest;
 import com.example.backend.demo_login.Auth.AuthResponse;
+import com.example.backend.demo_login.Auth.ChangePasswordRequest;
 import com.example.backend.demo_login.Auth.Exception.CustomAuthenticationException;
 import com.example.backend.demo_login.Auth.Exception.UserAlreadyExistsException;
 import com.example.backend.demo_login.Auth.Exception.UserNotFoundException;
 import com.example.backend.demo_login.Auth.Exception.ValidationException;
+import com.example.backend.demo_login.Auth.LogoutRequest;
+import com.example.backend.demo_login.Auth.Refresh.RefreshTokenService;
+import com.example.backend.demo_login.Auth.RefreshRequest;
 import com.example.backend.demo_login.Auth.RegisterRequest;
 import com.example.backend.demo_login.Auth.UserResponse;
+import com.example.backend.demo_login.Indexing.IndexManager;
+import com.example.backend.demo_login.Revocation.TokenRevocationService;
+import com.example.backend.demo_login.User.UserChangedEvent;
 import com.example.backend.demo_login.User.UserRepo;
 import com.example.backend.demo_login.User.Users;
+import com.example.backend.demo_login.UserPrincipal;
 import com.example.backend.demo_login.Utilities.ValidationUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Arrays;
+import java.util.Optional;
 
 @Slf4j
 @Service
 @Transactional
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class UserServices {
     @Autowired
     private UserRepo userRepo;
@@ -37,7 +50,26 @@ public class UserServices {
     @Autowired
     AuthenticationManager authManager;
 
-    private BCryptPasswordEncoder bCryptPasswordEncoder = new BCryptPasswordEncoder(12);
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private LoginThrottleService loginThrottleService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private IndexManager indexManager;
     
     @Transactional
     public AuthResponse register(RegisterRequest request) {
@@ -46,67 +78,56 @@ public class UserServices {
         // Manual validation for MongoDB
         validateRegistrationRequest(request);
 
-        // Check if user already exists
-        if (userRepo.existsByUsername(request.getUsername())) {
-            log.warn("Registration failed - Username already exists: {}", request.getUsername());
-            throw new UserAlreadyExistsException("Username is already taken");
-        }
-
-        if (userRepo.existsByEmail(request.getEmail())) {
-            log.warn("Registration failed - Email already exists: {}", request.getEmail());
-            throw new UserAlreadyExistsException("Email is already registered");
-        }
-
         // Create and save user
         Users user = Users.builder()
                 .userId(request.getUsername() + ":" + request.getEmail())
                 .username(request.getUsername().trim().toLowerCase())
                 .email(request.getEmail().trim().toLowerCase())
-                .password(bCryptPasswordEncoder.encode(request.getPassword()))
+                .password(passwordEncoder.encode(request.getPassword()))
                 .roles(Arrays.asList("USER"))
                 .build();
 
-        Users savedUser = userRepo.save(user);
+        // One insert; the unique username/email indexes reject duplicates, also under concurrent signups,
+        // so refuse to insert at all while those indexes cannot be confirmed
+        indexManager.requireUniqueUserIndexes();
+        Users savedUser;
+        try {
+            savedUser = userRepo.insert(user);
+        } catch (DuplicateKeyException e) {
+            UserAlreadyExistsException conflict = UserAlreadyExistsException.forDuplicateKey(e);
+            log.warn("Registration failed - {}: {} / {}", conflict.getMessage(), request.getUsername(), request.getEmail());
+            throw conflict;
+        }
+        eventPublisher.publishEvent(new UserChangedEvent(savedUser));
         log.info("Registration successful for user: {}", savedUser.getUsername());
 
         // Generate token
-        String token = jwtService.generateToken(savedUser.getUsername());
+        String token = jwtService.generateToken(savedUser);
 
         return AuthResponse.builder()
                 .token(token)
                 .tokenType("Bearer")
                 .expiresIn(jwtService.getExpirationTime())
+                .refreshToken(refreshTokenService.issue(savedUser.getUsername()))
                 .user(mapToUserResponse(savedUser))
                 .build();
     }
     
     private void validateRegistrationRequest(RegisterRequest request) {
-        if (request.getUsername() == null || request.getUsername().trim().isEmpty()) {
-            throw new ValidationException("Username is required");
-        }
-        
-        if (request.getEmail() == null || request.getEmail().trim().isEmpty()) {
-            throw new ValidationException("Email is required");
-        }
-        
-        if (request.getPassword() == null || request.getPassword().isEmpty()) {
-            throw new ValidationException("Password is required");
-        }
-        
-        if (!ValidationUtils.isValidUsername(request.getUsername())) {
-            throw new ValidationException("Username must be 3-20 characters, alphanumeric and underscores only");
-        }
-        
-        if (!ValidationUtils.isValidEmail(request.getEmail())) {
-            throw new ValidationException("Please provide a valid email address");
-        }
-        
-        if (!ValidationUtils.isValidPassword(request.getPassword())) {
-            throw new ValidationException(ValidationUtils.getPasswordRequirements());
+        String error = ValidationUtils.registrationError(request.getUsername(), request.getEmail(), request.getPassword());
+        if (error != null) {
+            throw new ValidationException(error);
         }
     }
     
     public AuthResponse login(AuthRequest request) {
+        return login(request, null);
+    }
+
+    /**
+     * @param clientIp remote address used for per-IP throttling, or null to throttle by account only
+     */
+    public AuthResponse login(AuthRequest request, String clientIp) {
         log.info("Login attempt for user: {}", request.getUsernameOrEmail());
         
         // Validate request
@@ -118,6 +139,9 @@ public class UserServices {
             throw new ValidationException("Password is required");
         }
 
+        // Refuse throttled attempts before any user lookup or password hashing
+        loginThrottleService.checkAllowed(request.getUsernameOrEmail(), clientIp);
+
         try {
             Authentication authentication = authManager.authenticate(
                     new UsernamePasswordAuthenticationToken(
@@ -127,16 +151,19 @@ public class UserServices {
             );
 
             if (authentication.isAuthenticated()) {
-                Users user = userRepo.findByUsernameOrEmail(request.getUsernameOrEmail().trim())
+                loginThrottleService.recordSuccess(request.getUsernameOrEmail());
+                // The provider already loaded the user; reuse it instead of querying again
+                Users user = loadedUser(authentication)
                         .orElseThrow(() -> new UserNotFoundException("User not found"));
 
-                String token = jwtService.generateToken(user.getUsername());
+                String token = jwtService.generateToken(user);
                 log.info("Login successful for user: {}", user.getUsername());
 
                 return AuthResponse.builder()
                         .token(token)
                         .tokenType("Bearer")
                         .expiresIn(jwtService.getExpirationTime())
+                        .refreshToken(refreshTokenService.issue(user.getUsername()))
                         .user(mapToUserResponse(user))
                         .build();
             }
@@ -144,6 +171,7 @@ public class UserServices {
             throw new CustomAuthenticationException("Authentication failed");
 
         } catch (BadCredentialsException e) {
+            loginThrottleService.recordFailure(request.getUsernameOrEmail(), clientIp);
             log.warn("Login failed for user: {} - Invalid credentials", request.getUsernameOrEmail());
             throw new CustomAuthenticationException("Invalid username/email or password");
         } catch (AuthenticationException e) {
@@ -152,6 +180,89 @@ public class UserServices {
         }
     }
 
+    /**
+     * Exchange a refresh token for a new access token and a rotated refresh token.
+     * No password hash is computed on this path.
+     */
+    public AuthResponse refresh(RefreshRequest request) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(request.getRefreshToken());
+        Users user = userRepo.findByUsername(rotation.getUsername())
+                .orElseThrow(() -> new CustomAuthenticationException("Invalid or expired refresh token"));
+
+        log.info("Token refreshed for user: {}", user.getUsername());
+        return AuthResponse.builder()
+                .token(jwtService.generateToken(user))
+                .tokenType("Bearer")
+                .expiresIn(jwtService.getExpirationTime())
+                .refreshToken(rotation.getRefreshToken())
+                .user(mapToUserResponse(user))
+                .build();
+    }
+
+    /**
+     * Revoke the presented access token and the refresh token family of the session, so the session
+     * cannot mint new access tokens. Without a refresh token, every session of the user is ended.
+     */
+    public void logout(String authHeader, LogoutRequest request) {
+        VerifiedToken accessToken = bearerToken(authHeader);
+        tokenRevocationService.revoke(accessToken);
+        String refreshToken = request == null ? null : request.getRefreshToken();
+        long revoked = refreshToken == null || refreshToken.isBlank()
+                ? refreshTokenService.revokeAll(accessToken.getSubject())
+                : refreshTokenService.revokeFamily(refreshToken, accessToken.getSubject());
+        log.info("Logout for user: {} - revoked {} refresh tokens", accessToken.getSubject(), revoked);
+    }
+
+    /**
+     * Change the password of the authenticated user. Every refresh token family and the presented
+     * access token are revoked; other access tokens lapse at their (short) expiry. The current
+     * password check goes through the same per-account and per-IP throttle as login, so a stolen
+     * access token cannot be used to guess it.
+     *
+     * @param clientIp remote address used for per-IP throttling, or null to throttle by account only
+     */
+    public void changePassword(String authHeader, ChangePasswordRequest request, String clientIp) {
+        VerifiedToken accessToken = bearerToken(authHeader);
+        if (request.getCurrentPassword() == null || request.getCurrentPassword().isEmpty()) {
+            throw new ValidationException("Current password is required");
+        }
+        if (!ValidationUtils.isValidPassword(request.getNewPassword())) {
+            throw new ValidationException(ValidationUtils.getPasswordRequirements());
+        }
+        String username = accessToken.getSubject();
+        // Refuse throttled attempts before any user lookup or password hashing
+        loginThrottleService.checkAllowed(username, clientIp);
+        Users user = userRepo.findByUsername(username)
+                .orElseThrow(() -> new UserNotFoundException("User not found"));
+        if (!passwordEncoder.matches(request.getCurrentPassword(), user.getPassword())) {
+            loginThrottleService.recordFailure(username, clientIp);
+            log.warn("Password change failed for user: {} - current password is incorrect", username);
+            throw new CustomAuthenticationException("Current password is incorrect");
+        }
+        loginThrottleService.recordSuccess(username);
+
+        // Rewrites only the password field and evicts the cached principal
+        userService.updatePassword(new UserPrincipal(user), passwordEncoder.encode(request.getNewPassword()));
+
+        long revoked = refreshTokenService.revokeAll(user.getUsername());
+        tokenRevocationService.revoke(accessToken);
+        log.info("Password changed for user: {} - revoked {} refresh tokens", user.getUsername(), revoked);
+    }
+
+    private VerifiedToken bearerToken(String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            throw new ValidationException("Bearer token is required");
+        }
+        return jwtService.verify(authHeader.substring(7));
+    }
+
+    private Optional<Users> loadedUser(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return Optional.of(principal.getUser());
+        }
+        return userService.findByUsernameOrEmail(authentication.getName());
+    }
+
     public UserResponse getCurrentUser(String username) {
         log.debug("Getting current user: {}", username);
         Users user = userRepo.findByUsername(username)
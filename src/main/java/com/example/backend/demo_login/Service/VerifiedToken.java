@@ -0,0 +1,34 @@
+package com.example.backend.demo_login.Service;
+
+import io.jsonwebtoken.Claims;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.Date;
+
+/**
+ * Result of a single signature verification of a JWT.
+ * Subject, expiry and the full claim set are read from one parse so callers
+ * never have to verify the same token twice. {@code claims} is null when the token
+ * was checked by the HS256 fast-path verifier, which only reads the registered claims.
+ */
+@Value
+@Builder
+public class VerifiedToken {
+    String token;
+    String id;
+    String subject;
+    Date issuedAt;
+    Date expiration;
+    Claims claims;
+    // Signed with the shared HS256 secret (no kid) rather than a key pair
+    boolean sharedSecret;
+
+    public boolean isExpired() {
+        return expiration != null && expiration.before(new Date());
+    }
+
+    public <T> T getClaim(String name, Class<T> type) {
+        return claims == null ? null : claims.get(name, type);
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.backend.demo_login.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional cache of successfully verified tokens, keyed by a SHA-256 digest of the raw token.
+ * Entries never outlive the token's own exp claim (or, for kid-less HS256 tokens, the
+ * HS256 transition window); invalid tokens are never cached.
+ */
+@Slf4j
+@Service
+public class VerifiedTokenCache {
+
+    private final JWTService jwtService;
+    private final boolean enabled;
+    private final Cache<String, VerifiedToken> cache;
+
+    public VerifiedTokenCache(JWTService jwtService,
+                              MeterRegistry meterRegistry,
+                              @Value("${jwt.cache.enabled:false}") boolean enabled,
+                              @Value("${jwt.cache.max-size:10000}") long maxSize) {
+        this.jwtService = jwtService;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        if (enabled) {
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.verified-tokens");
+            log.info("Verified token cache enabled with max size {}", maxSize);
+        }
+    }
+
+    /**
+     * Return the verified token, skipping signature verification when the same token was seen before.
+     */
+    public VerifiedToken verify(String token) {
+        if (!enabled) {
+            return jwtService.verify(token);
+        }
+        String key = digest(token);
+        VerifiedToken verifiedToken = cache.get(key, k -> jwtService.verify(token));
+        // Expiry is lazy in Caffeine, so guard against an entry read in the last instant of its life.
+        // Shared-secret tokens cached during an HS256 transition window must not outlive it.
+        if (verifiedToken.isExpired() || (verifiedToken.isSharedSecret() && !jwtService.acceptsSharedSecret())) {
+            cache.invalidate(key);
+            return jwtService.verify(token);
+        }
+        return verifiedToken;
+    }
+
+    /**
+     * The cached verification of this token, or null when it would have to be verified now.
+     * Never verifies, so it is safe to call where blocking is not allowed.
+     */
+    public VerifiedToken getIfPresent(String token) {
+        if (!enabled) {
+            return null;
+        }
+        VerifiedToken verifiedToken = cache.getIfPresent(digest(token));
+        if (verifiedToken == null || verifiedToken.isExpired()
+                || (verifiedToken.isSharedSecret() && !jwtService.acceptsSharedSecret())) {
+            return null;
+        }
+        return verifiedToken;
+    }
+
+    public void invalidate(String token) {
+        cache.invalidate(digest(token));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getHitCount() {
+        return cache.stats().hitCount();
+    }
+
+    public long getMissCount() {
+        return cache.stats().missCount();
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static class TokenExpiry implements Expiry<String, VerifiedToken> {
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            if (value.getExpiration() == null) {
+                return 0;
+            }
+            long remainingMillis = value.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.backend.demo_login.Shop;
+
+import com.example.backend.demo_login.Auth.ApiResponse;
+import com.example.backend.demo_login.Auth.Exception.ValidationException;
+import com.example.backend.demo_login.Utilities.MergePatch;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reactive version of {@link ShopController}.
+ */
+@RestController
+@RequestMapping("/shop")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveShopController {
+    private final ReactiveShopService shopService;
+
+    public ReactiveShopController(ReactiveShopService shopService) {
+        this.shopService = shopService;
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<List<Shop>>> getShops() {
+        return shopService.getShop().collectList().map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/user/{userId}")
+    public Mono<ResponseEntity<Shop>> getShopByUserId(@PathVariable String userId) {
+        return shopService.getShopByUserId(userId)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Shop>> createShop(@RequestBody Shop shop) {
+        return currentUsername()
+                .flatMap(username -> shopService.addShop(shop, username))
+                .map(ResponseEntity::ok);
+    }
+
+    // Body is a JSON Merge Patch: only the fields present change, null removes one. An invalid
+    // patch gets the same ApiResponse error body as the servlet stack
+    @PatchMapping(value = "/{id}", consumes = {MergePatch.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE})
+    public Mono<ResponseEntity<Object>> updateShop(@PathVariable String id, @RequestBody Map<String, Object> patch) {
+        return currentUsername()
+                .flatMap(username -> shopService.updateShop(id, patch, username))
+                .<ResponseEntity<Object>>map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build())
+                .onErrorResume(ValidationException.class,
+                        e -> Mono.just(ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()))));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteShop(@PathVariable String id) {
+        return currentUsername()
+                .flatMap(username -> shopService.deleteShop(id, username))
+                .then(Mono.just(ResponseEntity.noContent().build()));
+    }
+
+    private static Mono<String> currentUsername() {
+        return ReactiveSecurityContextHolder.getContext()
+                .map(context -> context.getAuthentication())
+                .map(Authentication::getName);
+    }
+}
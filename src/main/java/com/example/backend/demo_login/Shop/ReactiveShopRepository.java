@@ -0,0 +1,14 @@
+package com.example.backend.demo_login.Shop;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of {@link ShopRepository}, used by the reactive profile.
+ */
+@Repository
+public interface ReactiveShopRepository extends ReactiveMongoRepository<Shop, String> {
+    Mono<Shop> findByUserId(String userId);
+    Mono<Shop> getShopByUserId(String userId);
+}
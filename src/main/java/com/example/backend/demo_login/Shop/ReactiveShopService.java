@@ -0,0 +1,60 @@
+package com.example.backend.demo_login.Shop;
+
+import com.example.backend.demo_login.Component.AuditDateTime;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Non-blocking version of {@link ShopService} for the reactive profile.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveShopService {
+    private final ReactiveShopRepository shopRepository;
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+
+    public ReactiveShopService(ReactiveShopRepository shopRepository, ReactiveMongoTemplate mongoTemplate, ObjectMapper objectMapper) {
+        this.shopRepository = shopRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    public Mono<Shop> addShop(Shop shop, String username) {
+        shop.setCreatedBy(username);
+        shop.setAuditDateTime(new AuditDateTime(Instant.now(), null, null));
+        return shopRepository.save(shop);
+    }
+
+    public Flux<Shop> getShop() {
+        return shopRepository.findAll();
+    }
+
+    // JSON Merge Patch applied as one targeted findAndModify; empty if there is no such shop owned by the caller
+    public Mono<Shop> updateShop(String id, Map<String, Object> patch, String username) {
+        return Mono.fromCallable(() -> ShopUpdates.PATCH.toUpdate(patch, objectMapper))
+                .flatMap(update -> update.getUpdateObject().isEmpty()
+                        ? mongoTemplate.findOne(ShopUpdates.owned(id, username), Shop.class)
+                        : mongoTemplate.findAndModify(ShopUpdates.owned(id, username), ShopUpdates.touched(update, username),
+                                ShopUpdates.RETURN_NEW, Shop.class));
+    }
+
+    public Mono<Void> deleteShop(String id, String username) {
+        return shopRepository.findById(id).flatMap(shop -> {
+            shop.setDeletedBy(username);
+            shop.getAuditDateTime().setDeletedAt(Instant.now());
+            return shopRepository.save(shop);
+        }).then();
+    }
+
+    public Mono<Shop> getShopByUserId(String userId) {
+        return shopRepository.getShopByUserId(userId);
+    }
+}
@@ -1,13 +1,19 @@
 package com.example.backend.demo_login.Shop;
 
+import com.example.backend.demo_login.Utilities.MergePatch;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.Map;
+
 @RestController
 @RequestMapping("/shop")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class ShopController {
     private final ShopService shopService;
 
@@ -31,9 +37,10 @@ public class ShopController {
         return ResponseEntity.ok(shopService.addShop(shop));
     }
 
-    @PatchMapping("/{id}")
-    public ResponseEntity<Shop> updateShop(@PathVariable String id, @RequestBody Shop shop) {
-        Shop updatedShop = shopService.updateShop(id, shop);
+    // Body is a JSON Merge Patch: only the fields present change, null removes one
+    @PatchMapping(value = "/{id}", consumes = {MergePatch.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Shop> updateShop(@PathVariable String id, @RequestBody Map<String, Object> patch) {
+        Shop updatedShop = shopService.updateShop(id, patch);
         return updatedShop != null ? ResponseEntity.ok(updatedShop) : ResponseEntity.notFound().build();
     }
 
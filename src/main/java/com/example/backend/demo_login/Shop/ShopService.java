@@ -1,6 +1,9 @@
 package com.example.backend.demo_login.Shop;
 
 import com.example.backend.demo_login.Component.AuditDateTime;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -10,13 +13,18 @@ import org.springframework.web.bind.annotation.GetMapping;
 import java.time.DateTimeException;
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class ShopService {
     private final ShopRepository shopRepository;
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
 
-    public ShopService(ShopRepository shopRepository) {
+    public ShopService(ShopRepository shopRepository, MongoTemplate mongoTemplate, ObjectMapper objectMapper) {
         this.shopRepository = shopRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
     }
 
     public Shop addShop(Shop shop) {
@@ -31,18 +39,17 @@ public class ShopService {
         return shopRepository.findAll();
     }
 
-    public Shop updateShop(String id, Shop shopDetails) {
-        return shopRepository.findById(id).map(shop -> {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String username = authentication.getName();
-
-            shop.setName(shopDetails.getName());
-            shop.setDescription(shopDetails.getDescription());
-            shop.setUpdatedBy(username);
-            shop.getAuditDateTime().setUpdatedAt(Instant.now());
+    // JSON Merge Patch applied as one targeted findAndModify; null if there is no such shop owned by the caller
+    public Shop updateShop(String id, Map<String, Object> patch) {
+        Update update = ShopUpdates.PATCH.toUpdate(patch, objectMapper);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String username = authentication.getName();
+        if (update.getUpdateObject().isEmpty()) {
+            return mongoTemplate.findOne(ShopUpdates.owned(id, username), Shop.class);
+        }
 
-            return shopRepository.save(shop);
-        }).orElse(null);
+        return mongoTemplate.findAndModify(ShopUpdates.owned(id, username), ShopUpdates.touched(update, username),
+                ShopUpdates.RETURN_NEW, Shop.class);
     }
 
     public void deleteShop(String id) {
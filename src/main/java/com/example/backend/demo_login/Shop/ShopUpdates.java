@@ -0,0 +1,46 @@
+package com.example.backend.demo_login.Shop;
+
+import com.example.backend.demo_login.Utilities.MergePatch;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Targeted shop updates shared by the blocking and reactive shop services.
+ */
+final class ShopUpdates {
+
+    static final FindAndModifyOptions RETURN_NEW = FindAndModifyOptions.options().returnNew(true);
+
+    // Fields the owner may change with PATCH (see owned); ownership and audit fields are not among them
+    static final MergePatch PATCH = new MergePatch(Map.of(
+            "name", String.class,
+            "description", String.class,
+            "gstin", String.class,
+            "phoneNumber", String.class,
+            "address", String.class),
+            Set.of());
+
+    private ShopUpdates() {
+    }
+
+    /**
+     * The shop with this id, if the caller owns it: it is the shop's userId or created it.
+     * Other callers see no such shop.
+     */
+    static Query owned(String id, String username) {
+        return new Query(Criteria.where("id").is(id)
+                .orOperator(Criteria.where("userId").is(username), Criteria.where("createdBy").is(username)));
+    }
+
+    static Update touched(Update update, String username) {
+        return update
+                .set("updatedBy", username)
+                .set("auditDateTime.updatedAt", Instant.now());
+    }
+}
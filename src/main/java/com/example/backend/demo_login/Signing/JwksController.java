@@ -0,0 +1,32 @@
+package com.example.backend.demo_login.Signing;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.TimeUnit;
+
+@RestController
+public class JwksController {
+
+    private final SigningKeyRing signingKeyRing;
+
+    public JwksController(SigningKeyRing signingKeyRing) {
+        this.signingKeyRing = signingKeyRing;
+    }
+
+    /**
+     * Public keys for local token verification by proxies and downstream services.
+     * GET /.well-known/jwks.json
+     */
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<String> jwks() {
+        return ResponseEntity.ok()
+                // Keys are published this long before they sign anything, see SigningKeyRing
+                .cacheControl(CacheControl.maxAge(signingKeyRing.getJwksMaxAge(), TimeUnit.MILLISECONDS).cachePublic())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(signingKeyRing.getJwksJson());
+    }
+}
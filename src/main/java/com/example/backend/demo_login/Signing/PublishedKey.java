@@ -0,0 +1,34 @@
+package com.example.backend.demo_login.Signing;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * Public verification key shared between nodes and served from the JWKS endpoint.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "SigningKey")
+public class PublishedKey {
+    @Id
+    private String kid;
+
+    private String algorithm;
+
+    // Public JWK as JSON; private key material is never persisted
+    private String jwk;
+
+    private Date createdAt;
+
+    @Indexed(expireAfterSeconds = 0)
+    private Date expiresAt;
+}
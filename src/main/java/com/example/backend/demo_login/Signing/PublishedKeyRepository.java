@@ -0,0 +1,8 @@
+package com.example.backend.demo_login.Signing;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PublishedKeyRepository extends MongoRepository<PublishedKey, String> {
+}
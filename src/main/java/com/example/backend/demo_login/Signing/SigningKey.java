@@ -0,0 +1,24 @@
+package com.example.backend.demo_login.Signing;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.Date;
+
+/**
+ * An asymmetric key pair owned by this node. Only the public half ever leaves the process.
+ */
+@Value
+@Builder(toBuilder = true)
+public class SigningKey {
+    String kid;
+    String algorithm;
+    PrivateKey privateKey;
+    PublicKey publicKey;
+    String publicJwkJson;
+    Date createdAt;
+    // After this instant no token signed with the key can still be valid
+    Date expiresAt;
+}
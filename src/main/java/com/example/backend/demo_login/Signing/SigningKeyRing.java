@@ -0,0 +1,400 @@
+package com.example.backend.demo_login.Signing;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.PublicJwk;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Keys used to sign and verify JWTs.
+ * <p>
+ * HS256 (default) signs with the shared {@code jwt.secret}. RS256 and EdDSA give every node its own
+ * key pair, identified by {@code kid}: public keys are published to Mongo so any node can verify any
+ * other node's tokens, and served from {@code /.well-known/jwks.json} for downstream services.
+ * Key pairs rotate on a schedule; retired keys stay verifiable until the last token they signed expires.
+ * <p>
+ * A rotated-in key is published first and signs nothing until it has been published for
+ * {@code jwt.signing.jwks-max-age}, the time verifiers may cache the JWKS. Until then, and for as long
+ * as publishing fails, the current key keeps signing. Only the first key at startup is active at once.
+ * <p>
+ * In RS256/EdDSA mode, tokens without a kid (HS256 with the shared secret) are rejected, unless
+ * {@code jwt.signing.legacy-hs256-until} names a cut-off for the switch from HS256.
+ */
+@Slf4j
+@Service
+public class SigningKeyRing {
+
+    public static final String HS256 = "HS256";
+    public static final String RS256 = "RS256";
+    public static final String EDDSA = "EdDSA";
+
+    // Lower bound between on-demand reloads triggered by unknown kids
+    private static final long MIN_RELOAD_INTERVAL = 5000;
+
+    @Value("${jwt.secret:}")
+    private String secretKey;
+
+    @Value("${jwt.signing.algorithm:HS256}")
+    private String algorithm;
+
+    @Value("${jwt.expiration:3600000}")
+    private long jwtExpiration;
+
+    @Value("${jwt.signing.rotation-interval:86400000}") // 1 day default
+    private long rotationInterval;
+
+    // How long verifiers may cache the JWKS; also the served max-age
+    @Value("${jwt.signing.jwks-max-age:300000}")
+    private long jwksMaxAge;
+
+    // ISO-8601 instant; empty (default) rejects kid-less HS256 tokens as soon as signing is asymmetric
+    @Value("${jwt.signing.legacy-hs256-until:}")
+    private String legacyHs256Until;
+
+    private final PublishedKeyRepository publishedKeyRepository;
+    private final MongoTemplate mongoTemplate;
+    // Guards rotation and reloads, which both talk to Mongo; a lock rather than a monitor so a
+    // virtual thread waiting on the database does not pin its carrier
+    private final ReentrantLock keysLock = new ReentrantLock();
+
+    private SecretKey hmacKey;
+    private Instant legacyHs256Deadline;
+    private volatile SigningKey activeKey;
+    // Published, not yet signing; written only under keysLock
+    private volatile SigningKey nextKey;
+    private final Map<String, Instant> publishedAt = new ConcurrentHashMap<>();
+    private final Map<String, SigningKey> ownKeys = new ConcurrentHashMap<>();
+    private final Set<String> unpublishedKids = ConcurrentHashMap.newKeySet();
+    private volatile Map<String, PublicKey> remoteKeys = Map.of();
+    private volatile Map<String, String> remoteJwks = Map.of();
+    private volatile Map<String, PublicKey> verificationKeys = Map.of();
+    private volatile String jwksJson = "{\"keys\":[]}";
+    // Written and checked only under keysLock
+    private long lastReload;
+    private volatile boolean indexEnsured;
+
+    public SigningKeyRing(PublishedKeyRepository publishedKeyRepository, MongoTemplate mongoTemplate) {
+        this.publishedKeyRepository = publishedKeyRepository;
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (secretKey == null || secretKey.trim().isEmpty()) {
+            log.warn("JWT secret not configured, generating random secret. This is not recommended for production!");
+            try {
+                KeyGenerator keyGen = KeyGenerator.getInstance("HmacSHA256");
+                SecretKey sk = keyGen.generateKey();
+                this.secretKey = Base64.getEncoder().encodeToString(sk.getEncoded());
+            } catch (NoSuchAlgorithmException e) {
+                throw new RuntimeException("Failed to generate JWT secret key", e);
+            }
+        }
+        this.hmacKey = Keys.hmacShaKeyFor(Base64.getDecoder().decode(secretKey));
+
+        if (!HS256.equals(algorithm) && !RS256.equals(algorithm) && !EDDSA.equals(algorithm)) {
+            throw new IllegalStateException("Unsupported jwt.signing.algorithm: " + algorithm);
+        }
+        if (isAsymmetric()) {
+            if (legacyHs256Until != null && !legacyHs256Until.isBlank()) {
+                legacyHs256Deadline = Instant.parse(legacyHs256Until.trim());
+                log.warn("Accepting HS256 tokens without kid until {}; remove jwt.signing.legacy-hs256-until after that",
+                        legacyHs256Deadline);
+            }
+            rotate();
+        }
+    }
+
+    public boolean isAsymmetric() {
+        return !HS256.equals(algorithm);
+    }
+
+    /**
+     * Whether tokens without a kid, signed with the shared secret, are currently accepted.
+     */
+    public boolean acceptsHs256() {
+        return !isAsymmetric() || (legacyHs256Deadline != null && Instant.now().isBefore(legacyHs256Deadline));
+    }
+
+    public SecretKey getHmacKey() {
+        return hmacKey;
+    }
+
+    /**
+     * Key pair new tokens are signed with, or null in HS256 mode.
+     */
+    public SigningKey getActiveKey() {
+        return activeKey;
+    }
+
+    public String getJwksJson() {
+        return jwksJson;
+    }
+
+    public long getJwksMaxAge() {
+        return jwksMaxAge;
+    }
+
+    /**
+     * Locator for the jjwt parser. Tokens without a kid are HS256 tokens signed with the shared secret,
+     * accepted only while {@link #acceptsHs256()}.
+     */
+    public LocatorAdapter<Key> keyLocator() {
+        return new LocatorAdapter<>() {
+            @Override
+            protected Key locate(JwsHeader header) {
+                return verificationKey(header.getKeyId());
+            }
+        };
+    }
+
+    private Key verificationKey(String kid) {
+        if (kid == null) {
+            if (!acceptsHs256()) {
+                throw new UnsupportedJwtException("Token without kid is not accepted with " + algorithm + " signing");
+            }
+            return hmacKey;
+        }
+        PublicKey key = verificationKeys.get(kid);
+        if (key == null) {
+            key = reloadForUnknownKid(kid);
+        }
+        if (key == null) {
+            throw new UnsupportedJwtException("Unknown signing key: " + kid);
+        }
+        return key;
+    }
+
+    /**
+     * Generate a fresh key pair and publish it as the next signing key; {@link #refresh()} activates it
+     * once it has been published for a JWKS max-age. Previous keys stay verifiable.
+     */
+    @Scheduled(fixedDelayString = "${jwt.signing.rotation-interval:86400000}",
+            initialDelayString = "${jwt.signing.rotation-interval:86400000}")
+    public void rotate() {
+        if (!isAsymmetric()) {
+            return;
+        }
+        keysLock.lock();
+        try {
+            rotateLocked();
+        } finally {
+            keysLock.unlock();
+        }
+    }
+
+    private void rotateLocked() {
+        KeyPair keyPair = EDDSA.equals(algorithm)
+                ? Jwks.CRV.Ed25519.keyPair().build()
+                : Jwts.SIG.RS256.keyPair().build();
+        String kid = UUID.randomUUID().toString();
+        PublicJwk<?> publicJwk = Jwks.builder().key(keyPair.getPublic()).id(kid).algorithm(algorithm).build();
+
+        Date now = new Date();
+        SigningKey signingKey = SigningKey.builder()
+                .kid(kid)
+                .algorithm(algorithm)
+                .privateKey(keyPair.getPrivate())
+                .publicKey(keyPair.getPublic())
+                .publicJwkJson(Jwks.json(publicJwk))
+                .createdAt(now)
+                // Pending for a JWKS max-age, then active for a rotation interval; corrected on retirement
+                .expiresAt(new Date(now.getTime() + jwksMaxAge + rotationInterval + jwtExpiration))
+                .build();
+
+        ownKeys.put(kid, signingKey);
+        unpublishedKids.add(kid);
+        pruneOwnKeys(now);
+        rebuildVerificationKeys();
+        publishOwnKeys();
+        if (activeKey == null) {
+            // Nothing has been signed yet, so there is no current key to keep using
+            activeKey = signingKey;
+            log.info("Initial JWT signing key, kid: {} ({})", kid, algorithm);
+            return;
+        }
+        // A next key that never got published is simply replaced
+        nextKey = signingKey;
+        log.info("Generated next JWT signing key {} ({}); it signs once published for {} ms", kid, algorithm, jwksMaxAge);
+        activateNextKeyLocked();
+    }
+
+    /**
+     * Switch to the next key once verifiers caching the JWKS must have seen it. The retired key
+     * stays verifiable, and published, until the last token it signed expires.
+     */
+    private void activateNextKeyLocked() {
+        SigningKey next = nextKey;
+        Instant published = next == null ? null : publishedAt.get(next.getKid());
+        if (published == null || Instant.now().isBefore(published.plusMillis(jwksMaxAge))) {
+            return;
+        }
+        SigningKey retired = activeKey;
+        activeKey = next;
+        nextKey = null;
+        if (retired != null) {
+            ownKeys.put(retired.getKid(), retired.toBuilder()
+                    .expiresAt(new Date(System.currentTimeMillis() + jwtExpiration))
+                    .build());
+            // Republish so the stored expiry matches the retirement
+            unpublishedKids.add(retired.getKid());
+            publishOwnKeys();
+        }
+        log.info("Rotated JWT signing key, new kid: {} ({})", next.getKid(), algorithm);
+    }
+
+    /**
+     * Publish our own keys that failed to publish earlier, activate the next key when it is due and
+     * pick up keys from other nodes.
+     */
+    @Scheduled(fixedDelayString = "${jwt.signing.jwks-refresh-interval:60000}")
+    public void refresh() {
+        if (!isAsymmetric()) {
+            return;
+        }
+        publishOwnKeys();
+        keysLock.lock();
+        try {
+            activateNextKeyLocked();
+        } finally {
+            keysLock.unlock();
+        }
+        reloadPublishedKeys();
+    }
+
+    private void reloadPublishedKeys() {
+        keysLock.lock();
+        try {
+            reloadPublishedKeysLocked();
+        } finally {
+            keysLock.unlock();
+        }
+    }
+
+    /**
+     * Probably a key another node rotated to since our last refresh. The interval check and the reload
+     * happen under the lock, so a burst of tokens with unknown kids costs at most one Mongo read per
+     * interval; callers queued behind a reload pick up its result.
+     */
+    private PublicKey reloadForUnknownKid(String kid) {
+        keysLock.lock();
+        try {
+            PublicKey key = verificationKeys.get(kid);
+            if (key == null && System.currentTimeMillis() - lastReload > MIN_RELOAD_INTERVAL) {
+                reloadPublishedKeysLocked();
+                key = verificationKeys.get(kid);
+            }
+            return key;
+        } finally {
+            keysLock.unlock();
+        }
+    }
+
+    private void reloadPublishedKeysLocked() {
+        lastReload = System.currentTimeMillis();
+        try {
+            Map<String, PublicKey> keys = new HashMap<>();
+            Map<String, String> jwks = new HashMap<>();
+            for (PublishedKey publishedKey : publishedKeyRepository.findAll()) {
+                if (ownKeys.containsKey(publishedKey.getKid())) {
+                    continue;
+                }
+                Jwk<?> jwk = Jwks.parser().build().parse(publishedKey.getJwk());
+                if (jwk.toKey() instanceof PublicKey publicKey) {
+                    keys.put(publishedKey.getKid(), publicKey);
+                    jwks.put(publishedKey.getKid(), publishedKey.getJwk());
+                }
+            }
+            remoteKeys = keys;
+            remoteJwks = jwks;
+            rebuildVerificationKeys();
+        } catch (Exception e) {
+            log.warn("Failed to reload published JWT signing keys: {}", e.getMessage());
+        }
+    }
+
+    private void publishOwnKeys() {
+        try {
+            ensureTtlIndex();
+            for (String kid : Set.copyOf(unpublishedKids)) {
+                SigningKey key = ownKeys.get(kid);
+                if (key != null) {
+                    publishedKeyRepository.save(PublishedKey.builder()
+                            .kid(kid)
+                            .algorithm(key.getAlgorithm())
+                            .jwk(key.getPublicJwkJson())
+                            .createdAt(key.getCreatedAt())
+                            .expiresAt(key.getExpiresAt())
+                            .build());
+                    publishedAt.putIfAbsent(kid, Instant.now());
+                }
+                unpublishedKids.remove(kid);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to publish JWT signing keys, will retry: {}", e.getMessage());
+        }
+    }
+
+    // Verification keys and the served JWKS are our own live keys plus those published by other nodes
+    private void rebuildVerificationKeys() {
+        Map<String, PublicKey> keys = new HashMap<>(remoteKeys);
+        Map<String, String> jwks = new HashMap<>(remoteJwks);
+        ownKeys.values().forEach(key -> {
+            keys.put(key.getKid(), key.getPublicKey());
+            jwks.put(key.getKid(), key.getPublicJwkJson());
+        });
+        verificationKeys = Map.copyOf(keys);
+        jwksJson = jwks.values().stream()
+                .collect(Collectors.joining(",", "{\"keys\":[", "]}"));
+    }
+
+    // The active and next keys are kept even if rotation has been held up past their nominal expiry
+    private void pruneOwnKeys(Date now) {
+        SigningKey active = activeKey;
+        SigningKey next = nextKey;
+        ownKeys.values().removeIf(key -> key.getExpiresAt().before(now)
+                && (active == null || !key.getKid().equals(active.getKid()))
+                && (next == null || !key.getKid().equals(next.getKid())));
+        publishedAt.keySet().retainAll(ownKeys.keySet());
+    }
+
+    // auto-index-creation is off in dev/prod, so make sure the TTL index exists
+    private void ensureTtlIndex() {
+        if (indexEnsured) {
+            return;
+        }
+        mongoTemplate.indexOps(PublishedKey.class)
+                .ensureIndex(new Index().on("expiresAt", Sort.Direction.ASC).expire(Duration.ZERO));
+        indexEnsured = true;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.backend.demo_login.User;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of {@link UserRepo}, used by the reactive profile.
+ */
+@Repository
+public interface ReactiveUserRepo extends ReactiveMongoRepository<Users, String> {
+    Mono<Users> findByUsername(String username);
+    Mono<Users> findByEmail(String email);
+
+    Mono<Boolean> existsByUsername(String username);
+    Mono<Boolean> existsByEmail(String email);
+}
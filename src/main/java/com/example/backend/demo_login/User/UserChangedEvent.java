@@ -0,0 +1,18 @@
+package com.example.backend.demo_login.User;
+
+import lombok.Getter;
+
+/**
+ * Published whenever a {@link Users} document is created or modified so that
+ * in-memory copies of the user (e.g. cached principals) can be dropped.
+ */
+@Getter
+public class UserChangedEvent {
+    private final String username;
+    private final String email;
+
+    public UserChangedEvent(Users user) {
+        this.username = user.getUsername();
+        this.email = user.getEmail();
+    }
+}
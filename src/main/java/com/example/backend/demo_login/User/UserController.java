@@ -3,7 +3,9 @@ package com.example.backend.demo_login.User;
 import com.example.backend.demo_login.Auth.*;
 import com.example.backend.demo_login.Service.JWTService;
 import com.example.backend.demo_login.Service.UserServices;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -12,6 +14,7 @@ import org.springframework.web.bind.annotation.*;
 
 @RestController
 @RequestMapping("/api/auth")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class UserController {
 
     @Autowired
@@ -30,11 +33,18 @@ public class UserController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<ApiResponse<AuthResponse>> login(@RequestBody AuthRequest request) {
-        AuthResponse response = userServices.login(request);
+    public ResponseEntity<ApiResponse<AuthResponse>> login(@RequestBody AuthRequest request,
+                                                           HttpServletRequest httpRequest) {
+        AuthResponse response = userServices.login(request, httpRequest.getRemoteAddr());
         return ResponseEntity.ok(ApiResponse.success(response, "Login successful"));
     }
 
+    @PostMapping("/refresh")
+    public ResponseEntity<ApiResponse<AuthResponse>> refresh(@RequestBody RefreshRequest request) {
+        AuthResponse response = userServices.refresh(request);
+        return ResponseEntity.ok(ApiResponse.success(response, "Token refreshed successfully"));
+    }
+
     @GetMapping("/me")
     public ResponseEntity<ApiResponse<UserResponse>> getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -45,11 +55,21 @@ public class UserController {
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<ApiResponse<String>> logout() {
-        // In a stateless JWT setup, logout is typically handled client-side
-        // by removing the token. You could implement token blacklisting here if needed.
+    public ResponseEntity<ApiResponse<String>> logout(@RequestHeader(value = "Authorization", required = false) String authHeader,
+                                                      @RequestBody(required = false) LogoutRequest request) {
+        // Revoke the presented token by its jti so it is rejected on every node until it expires,
+        // and the session's refresh token family so it cannot mint new ones
+        userServices.logout(authHeader, request);
         return ResponseEntity.ok(ApiResponse.success(null, "Logout successful"));
     }
+
+    @PostMapping("/password")
+    public ResponseEntity<ApiResponse<String>> changePassword(@RequestHeader(value = "Authorization", required = false) String authHeader,
+                                                              @RequestBody ChangePasswordRequest request,
+                                                              HttpServletRequest httpRequest) {
+        userServices.changePassword(authHeader, request, httpRequest.getRemoteAddr());
+        return ResponseEntity.ok(ApiResponse.success(null, "Password changed, please log in again"));
+    }
 }
 
 /*
@@ -0,0 +1,37 @@
+package com.example.backend.demo_login.User;
+
+import com.example.backend.demo_login.Service.UserImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+/**
+ * Admin-only bulk user import. The request body is NDJSON with one registration
+ * ({@code username}, {@code email}, {@code password}) per line; the response streams one
+ * result per line as each batch completes.
+ */
+@RestController
+@RequestMapping("/api/admin/users")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class UserImportController {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final UserImportService userImportService;
+
+    public UserImportController(UserImportService userImportService) {
+        this.userImportService = userImportService;
+    }
+
+    // Written synchronously to the response so long imports are not cut off by the async request timeout
+    @PostMapping(value = "/import", consumes = NDJSON)
+    public void importUsers(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON);
+        userImportService.importUsers(request.getInputStream(), response.getOutputStream());
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.backend.demo_login;
 
+import com.example.backend.demo_login.Enum.Role;
 import com.example.backend.demo_login.User.Users;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -9,15 +10,28 @@ import java.util.Collection;
 import java.util.Collections;
 
 public class UserPrincipal implements UserDetails {
+    public static final String ROLE_PREFIX = "ROLE_";
+    public static final String ADMIN_AUTHORITY = ROLE_PREFIX + Role.ADMIN.getRole();
+
     private Users user;
 
     public UserPrincipal(Users user) {
         this.user = user;
     }
 
+    public Users getUser() {
+        return user;
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return Collections.singleton(new SimpleGrantedAuthority("USER"));
+        if (user.getRoles() == null || user.getRoles().isEmpty()) {
+            return Collections.singleton(new SimpleGrantedAuthority(ROLE_PREFIX + Role.USER.getRole()));
+        }
+        // Roles are stored bare ("ADMIN"); hasRole and isAdmin check the ROLE_ authority
+        return user.getRoles().stream()
+                .map(role -> new SimpleGrantedAuthority(role.startsWith(ROLE_PREFIX) ? role : ROLE_PREFIX + role))
+                .toList();
     }
 
     @Override
@@ -0,0 +1,60 @@
+package com.example.backend.demo_login.Utilities;
+
+import com.example.backend.demo_login.Auth.Exception.ValidationException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Turns a JSON Merge Patch (RFC 7386) body into a targeted Mongo update: a member with a
+ * value becomes {@code $set}, a member that is null becomes {@code $unset}, and absent
+ * members are left alone. Only the declared top-level fields can be patched; each value is
+ * converted to the field's type, so a bad enum or number is rejected before anything is written.
+ */
+public class MergePatch {
+
+    public static final String MEDIA_TYPE = "application/merge-patch+json";
+
+    private final Map<String, Class<?>> patchableFields;
+    private final Set<String> requiredFields;
+
+    /**
+     * @param patchableFields field name to Java type, for every field a client may change
+     * @param requiredFields  patchable fields that must not be removed with null
+     */
+    public MergePatch(Map<String, Class<?>> patchableFields, Set<String> requiredFields) {
+        this.patchableFields = patchableFields;
+        this.requiredFields = requiredFields;
+    }
+
+    /**
+     * @throws ValidationException for unknown fields, removal of a required field or a value of the wrong type
+     */
+    public Update toUpdate(Map<String, Object> patch, ObjectMapper objectMapper) {
+        Update update = new Update();
+        if (patch == null) {
+            return update;
+        }
+        patch.forEach((field, value) -> {
+            Class<?> type = patchableFields.get(field);
+            if (type == null) {
+                throw new ValidationException("Field cannot be patched: " + field);
+            }
+            if (value == null) {
+                if (requiredFields.contains(field)) {
+                    throw new ValidationException("Field cannot be removed: " + field);
+                }
+                update.unset(field);
+                return;
+            }
+            try {
+                update.set(field, objectMapper.convertValue(value, type));
+            } catch (IllegalArgumentException e) {
+                throw new ValidationException("Invalid value for " + field);
+            }
+        });
+        return update;
+    }
+}
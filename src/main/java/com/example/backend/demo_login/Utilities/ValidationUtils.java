@@ -1,5 +1,6 @@
 package com.example.backend.demo_login.Utilities;
 
+import java.util.Locale;
 import java.util.regex.Pattern;
 
 public class ValidationUtils {
@@ -36,6 +37,42 @@ public class ValidationUtils {
         return "Password must be 8-100 characters and contain: uppercase letter, lowercase letter, digit, and special character (@$!%*?&)";
     }
 
+    /**
+     * Registration rules shared by single and bulk registration. Returns the first violation, or null.
+     */
+    public static String registrationError(String username, String email, String password) {
+        if (username == null || username.trim().isEmpty()) {
+            return "Username is required";
+        }
+        if (email == null || email.trim().isEmpty()) {
+            return "Email is required";
+        }
+        if (password == null || password.isEmpty()) {
+            return "Password is required";
+        }
+        if (!isValidUsername(username)) {
+            return "Username must be 3-20 characters, alphanumeric and underscores only";
+        }
+        if (!isValidEmail(email)) {
+            return "Please provide a valid email address";
+        }
+        if (!isValidPassword(password)) {
+            return getPasswordRequirements();
+        }
+        return null;
+    }
+
+    /**
+     * Usernames and emails are stored trimmed and lowercase; login input is normalized the same way.
+     */
+    public static String normalizeUsernameOrEmail(String usernameOrEmail) {
+        return usernameOrEmail == null ? "" : usernameOrEmail.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public static boolean isEmailLike(String usernameOrEmail) {
+        return usernameOrEmail.indexOf('@') >= 0;
+    }
+
     public static boolean isNotBlank(String str) {
         return str != null && !str.trim().isEmpty();
     }
@@ -0,0 +1,29 @@
+package com.example.backend.demo_login.Auth.Exception;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class UserAlreadyExistsExceptionTests {
+
+    private static final String PREFIX = "E11000 duplicate key error collection: backendProject.User ";
+
+    @Test
+    void conflictIsNamedByTheViolatedIndex() {
+        assertEquals("Username is already taken", message("index: username dup key: { username: \"myemail\" }"));
+        assertEquals("Username is already taken", message("index: username_1 dup key: { username: \"email\" }"));
+        assertEquals("Email is already registered", message("index: email dup key: { email: \"a@b.c\" }"));
+        assertEquals("Email is already registered", message("index: email_1 dup key: { email: \"username@b.c\" }"));
+    }
+
+    @Test
+    void unknownIndexFallsBackToTheKeyDocument() {
+        assertEquals("Email is already registered", message("index: by_mail dup key: { email: \"a@b.c\" }"));
+        assertEquals("User already exists", message("index: _id_ dup key: { _id: ObjectId('65f0') }"));
+        assertEquals("User already exists", message("index: legacy dup key: { : \"email\" }"));
+    }
+
+    private static String message(String detail) {
+        return UserAlreadyExistsException.forDuplicateKey(PREFIX + detail).getMessage();
+    }
+}
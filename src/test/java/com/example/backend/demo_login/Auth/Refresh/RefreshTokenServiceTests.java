@@ -0,0 +1,145 @@
+package com.example.backend.demo_login.Auth.Refresh;
+
+import com.example.backend.demo_login.Auth.Exception.CustomAuthenticationException;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Rotation, reuse detection and revocation of refresh tokens against an embedded Mongo, since
+ * single use rests on the atomic claim in findAndModify. Runs only with the mongo-tests profile,
+ * and fails there when no mongod binary can be downloaded.
+ */
+@Tag("mongo")
+class RefreshTokenServiceTests {
+
+    private static final int CONCURRENT_REFRESHES = 16;
+
+    private static TransitionWalker.ReachedState<RunningMongodProcess> mongod;
+    private static MongoClient client;
+    private static MongoTemplate mongoTemplate;
+    private static RefreshTokenRepository repository;
+
+    private RefreshTokenService service;
+
+    @BeforeAll
+    static void startMongo() {
+        try {
+            mongod = Mongod.instance().start(Version.V7_0_0);
+        } catch (RuntimeException e) {
+            // Fail rather than skip, so the mongo-tests profile cannot pass without running
+            throw new IllegalStateException("Embedded mongod " + Version.V7_0_0.asInDownloadPath()
+                    + " unavailable: download it or restore the ~/.embedmongo cache", e);
+        }
+        var address = mongod.current().getServerAddress();
+        client = MongoClients.create("mongodb://" + address.getHost() + ":" + address.getPort());
+        mongoTemplate = new MongoTemplate(client, "refreshTokens");
+        repository = new MongoRepositoryFactory(mongoTemplate).getRepository(RefreshTokenRepository.class);
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        if (client != null) {
+            client.close();
+        }
+        if (mongod != null) {
+            mongod.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+        service = new RefreshTokenService(repository, mongoTemplate);
+        ReflectionTestUtils.setField(service, "refreshExpiration", 60000L);
+    }
+
+    @Test
+    void refreshTokenCanBeUsedOnce() {
+        String first = service.issue("alice");
+
+        RefreshTokenService.Rotation rotation = service.rotate(first);
+
+        assertEquals("alice", rotation.getUsername());
+        assertThrows(CustomAuthenticationException.class, () -> service.rotate(first));
+    }
+
+    @Test
+    void concurrentRefreshesWithOneTokenHaveOneWinner() throws Exception {
+        String token = service.issue("alice");
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_REFRESHES);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> attempts = new ArrayList<>();
+        try {
+            for (int i = 0; i < CONCURRENT_REFRESHES; i++) {
+                attempts.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        service.rotate(token);
+                        return true;
+                    } catch (CustomAuthenticationException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+            int winners = 0;
+            for (Future<Boolean> attempt : attempts) {
+                winners += attempt.get() ? 1 : 0;
+            }
+            assertEquals(1, winners);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void reusingARotatedTokenRevokesTheWholeFamily() {
+        String first = service.issue("alice");
+        String other = service.issue("alice");
+        String second = service.rotate(first).getRefreshToken();
+
+        assertThrows(CustomAuthenticationException.class, () -> service.rotate(first));
+
+        // The thief's replay also ends the legitimate holder's chain, but not the user's other logins
+        assertThrows(CustomAuthenticationException.class, () -> service.rotate(second));
+        assertEquals("alice", service.rotate(other).getUsername());
+    }
+
+    @Test
+    void logoutRevokesOnlyTheCallersFamilyAndPasswordChangeRevokesAll() {
+        String session = service.issue("alice");
+        String otherSession = service.issue("alice");
+        String bobSession = service.issue("bob");
+
+        assertEquals(0, service.revokeFamily(bobSession, "alice"));
+        assertEquals(1, service.revokeFamily(session, "alice"));
+        assertThrows(CustomAuthenticationException.class, () -> service.rotate(session));
+
+        String rotated = service.rotate(otherSession).getRefreshToken();
+        assertEquals(2, service.revokeAll("alice"));
+        assertThrows(CustomAuthenticationException.class, () -> service.rotate(rotated));
+        assertEquals("bob", service.rotate(bobSession).getUsername());
+    }
+}
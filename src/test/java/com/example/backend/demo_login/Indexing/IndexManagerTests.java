@@ -0,0 +1,49 @@
+package com.example.backend.demo_login.Indexing;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IndexManagerTests {
+
+    private static final Index EMAIL = new Index().on("email", Sort.Direction.ASC).unique().named("email");
+
+    @Test
+    void indexWithTheDeclaredOptionsHasNoDrift() {
+        Index shop = new Index().on("userId", Sort.Direction.ASC)
+                .partial(PartialIndexFilter.of(Criteria.where("userId").exists(true)))
+                .named("userId");
+
+        assertEquals(List.of(), IndexManager.drift(EMAIL, existing("email_1", "email", new Document("unique", true))));
+        assertEquals(List.of(), IndexManager.drift(shop, existing("userId_1", "userId",
+                new Document("partialFilterExpression", new Document("userId", new Document("$exists", true))))));
+    }
+
+    @Test
+    void sameKeysWithOtherOptionsIsDrift() {
+        Index familyId = new Index().on("familyId", Sort.Direction.ASC).named("familyId");
+
+        assertEquals(List.of("unique false, declared true"),
+                IndexManager.drift(EMAIL, existing("email_1", "email", new Document())));
+        assertEquals(List.of("partial filter {\"email\": {\"$type\": \"string\"}}, declared none"),
+                IndexManager.drift(EMAIL, existing("email_1", "email", new Document("unique", true)
+                        .append("partialFilterExpression", new Document("email", new Document("$type", "string"))))));
+        assertEquals(List.of("expireAfterSeconds 86400, declared null"),
+                IndexManager.drift(familyId, existing("familyId_1", "familyId", new Document("expireAfterSeconds", 86400))));
+    }
+
+    // An index as listIndexes returns it
+    private static IndexInfo existing(String name, String field, Document options) {
+        Document index = new Document("v", 2).append("key", new Document(field, 1)).append("name", name);
+        index.putAll(options);
+        return IndexInfo.indexInfoOf(index);
+    }
+}
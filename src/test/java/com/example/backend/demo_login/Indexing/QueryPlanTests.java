@@ -0,0 +1,259 @@
+package com.example.backend.demo_login.Indexing;
+
+import com.example.backend.demo_login.Component.AuditDateTime;
+import com.example.backend.demo_login.Enum.RoutineStatus;
+import com.example.backend.demo_login.Routine.Routine;
+import com.example.backend.demo_login.Routine.RoutinePager;
+import com.example.backend.demo_login.Routine.RoutineRepository;
+import com.example.backend.demo_login.Shop.Shop;
+import com.example.backend.demo_login.Shop.ShopRepository;
+import com.example.backend.demo_login.User.UserRepo;
+import com.example.backend.demo_login.User.Users;
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Explains every query the User, Routine and Shop repositories send against a seeded
+ * embedded Mongo with the indexes declared by {@link IndexManager}, and fails on a
+ * COLLSCAN or on a plan that examines far more documents than it returns.
+ * <p>
+ * The commands are captured from the driver, so the explained query is exactly what
+ * Spring Data generates. Runs only with the mongo-tests profile, and fails there when
+ * no mongod binary can be downloaded.
+ */
+@Tag("mongo")
+class QueryPlanTests {
+
+    private static final int USERS = 2000;
+    private static final int ROUTINES_PER_USER = 10;
+
+    // A plan may examine at most this many documents per document returned, plus slack
+    private static final int MAX_EXAMINED_PER_RETURNED = 2;
+    private static final int EXAMINED_SLACK = 10;
+
+    private static final Set<String> QUERY_COMMANDS = Set.of("find", "aggregate", "count", "distinct");
+    private static final Set<String> SESSION_FIELDS = Set.of("$db", "lsid", "$clusterTime", "$readPreference", "txnNumber");
+
+    private static TransitionWalker.ReachedState<RunningMongodProcess> mongod;
+    private static MongoClient client;
+    private static MongoTemplate mongoTemplate;
+    private static final List<BsonDocument> capturedCommands = new CopyOnWriteArrayList<>();
+
+    private static UserRepo userRepo;
+    private static RoutineRepository routineRepository;
+    private static ShopRepository shopRepository;
+
+    @BeforeAll
+    static void startMongo() {
+        try {
+            mongod = Mongod.instance().start(Version.V7_0_0);
+        } catch (RuntimeException e) {
+            // Fail rather than skip, so the mongo-tests profile cannot pass without running
+            throw new IllegalStateException("Embedded mongod " + Version.V7_0_0.asInDownloadPath()
+                    + " unavailable: download it or restore the ~/.embedmongo cache", e);
+        }
+        var address = mongod.current().getServerAddress();
+        CommandListener listener = new CommandListener() {
+            @Override
+            public void commandStarted(CommandStartedEvent event) {
+                if (QUERY_COMMANDS.contains(event.getCommandName())) {
+                    capturedCommands.add(event.getCommand().clone());
+                }
+            }
+        };
+        client = MongoClients.create(MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString("mongodb://" + address.getHost() + ":" + address.getPort()))
+                .addCommandListener(listener)
+                .build());
+        mongoTemplate = new MongoTemplate(client, "queryPlans");
+
+        MongoRepositoryFactory factory = new MongoRepositoryFactory(mongoTemplate);
+        userRepo = factory.getRepository(UserRepo.class);
+        routineRepository = factory.getRepository(RoutineRepository.class);
+        shopRepository = factory.getRepository(ShopRepository.class);
+
+        seed();
+        new IndexManager(mongoTemplate, false).ensureIndexes();
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        if (client != null) {
+            client.close();
+        }
+        if (mongod != null) {
+            mongod.close();
+        }
+    }
+
+    private static void seed() {
+        RoutineStatus[] statuses = RoutineStatus.values();
+        List<Users> users = new ArrayList<>();
+        List<Routine> routines = new ArrayList<>();
+        List<Shop> shops = new ArrayList<>();
+        for (int u = 0; u < USERS; u++) {
+            String username = "user" + u;
+            users.add(Users.builder()
+                    .userId(username + ":" + username + "@example.com")
+                    .username(username)
+                    .email(username + "@example.com")
+                    .password("{bcrypt}$2a$10$abcdefghijklmnopqrstuuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ01")
+                    .build());
+            for (int r = 0; r < ROUTINES_PER_USER; r++) {
+                Routine routine = new Routine();
+                routine.setRoutineId(username + "-routine" + r);
+                routine.setRoutineName("Routine " + r);
+                routine.setRoutineStatus(statuses[(u + r) % statuses.length]);
+                routine.setUserId(username);
+                routine.setCreatedBy(username);
+                routine.setAuditDateTime(new AuditDateTime(Instant.now(), null, null));
+                if (r == 0) {
+                    routine.setDeletedBy(username);
+                }
+                routines.add(routine);
+            }
+            if (u % 2 == 0) {
+                Shop shop = new Shop();
+                shop.setName("Shop " + u);
+                shop.setUserId(username);
+                shops.add(shop);
+            }
+        }
+        mongoTemplate.insertAll(users);
+        mongoTemplate.insertAll(routines);
+        mongoTemplate.insertAll(shops);
+    }
+
+    @Test
+    void userQueriesUseIndexes() {
+        List<String> failures = new ArrayList<>();
+        check(failures, "findByUsername", () -> userRepo.findByUsername("user42"));
+        check(failures, "findByEmail", () -> userRepo.findByEmail("user42@example.com"));
+        check(failures, "findByUsernameOrEmail", () -> userRepo.findByUsernameOrEmail("user42"));
+        check(failures, "existsByUsername", () -> userRepo.existsByUsername("user42"));
+        check(failures, "existsByEmail", () -> userRepo.existsByEmail("user42@example.com"));
+        assertNoFailures(failures);
+    }
+
+    @Test
+    void routineQueriesUseIndexes() {
+        String routineId = routineRepository.findByRoutineIdAndUserIdAndNotDeleted("user7-routine3", "user7")
+                .orElseThrow().getId();
+        List<String> failures = new ArrayList<>();
+        check(failures, "findByUserIdAndNotDeleted", () -> routineRepository.findByUserIdAndNotDeleted("user7"));
+        check(failures, "findByIdAndNotDeleted", () -> routineRepository.findByIdAndNotDeleted(routineId));
+        check(failures, "findAllNotDeleted", () -> routineRepository.findAllNotDeleted());
+        check(failures, "existsByRoutineIdAndUserIdAndNotDeleted",
+                () -> routineRepository.existsByRoutineIdAndUserIdAndNotDeleted("user7-routine3", "user7"));
+        check(failures, "findByRoutineIdAndUserIdAndNotDeleted",
+                () -> routineRepository.findByRoutineIdAndUserIdAndNotDeleted("user7-routine3", "user7"));
+        check(failures, "findByRoutineStatusAndNotDeleted",
+                () -> routineRepository.findByRoutineStatusAndNotDeleted(RoutineStatus.PAUSED));
+        check(failures, "findByUserIdAndRoutineStatusAndNotDeleted",
+                () -> routineRepository.findByUserIdAndRoutineStatusAndNotDeleted("user7", RoutineStatus.ACTIVE));
+
+        // Keyset pages must stay index range scans from the cursor, not sort the whole filter result
+        ObjectId after = new ObjectId(routineId);
+        Pageable page = new RoutinePager(50, 500).pageable(20);
+        check(failures, "findPageNotDeleted", () -> routineRepository.findPageNotDeleted(after, page));
+        check(failures, "findPageByUserIdAndNotDeleted",
+                () -> routineRepository.findPageByUserIdAndNotDeleted("user7", after, page));
+        check(failures, "findPageByRoutineStatusAndNotDeleted",
+                () -> routineRepository.findPageByRoutineStatusAndNotDeleted(RoutineStatus.PAUSED, after, page));
+        check(failures, "findPageByUserIdAndRoutineStatusAndNotDeleted",
+                () -> routineRepository.findPageByUserIdAndRoutineStatusAndNotDeleted("user7", RoutineStatus.ACTIVE, after, page));
+        assertNoFailures(failures);
+    }
+
+    @Test
+    void shopQueriesUseIndexes() {
+        List<String> failures = new ArrayList<>();
+        check(failures, "findByUserId", () -> shopRepository.findByUserId("user42"));
+        check(failures, "getShopByUserId", () -> shopRepository.getShopByUserId("user42"));
+        assertNoFailures(failures);
+    }
+
+    // Run the repository call, then explain every query command it sent
+    private static void check(List<String> failures, String method, Runnable call) {
+        capturedCommands.clear();
+        call.run();
+        if (capturedCommands.isEmpty()) {
+            failures.add(method + ": no query captured");
+        }
+        for (BsonDocument command : capturedCommands) {
+            BsonDocument query = command.clone();
+            SESSION_FIELDS.forEach(query::remove);
+            Document explain = mongoTemplate.getDb().runCommand(
+                    new BsonDocument("explain", query).append("verbosity", new BsonString("executionStats")));
+
+            Document stats = explainStats(explain);
+            long examined = ((Number) stats.get("totalDocsExamined")).longValue();
+            long returned = ((Number) stats.get("nReturned")).longValue();
+            if (containsStage(explain, "COLLSCAN")) {
+                failures.add(method + ": COLLSCAN for " + query.toJson());
+            } else if (examined > returned * MAX_EXAMINED_PER_RETURNED + EXAMINED_SLACK) {
+                failures.add(method + ": examined " + examined + " documents to return " + returned
+                        + " for " + query.toJson());
+            }
+        }
+    }
+
+    // Aggregations report execution stats per stage; find reports them at the top level
+    private static Document explainStats(Document explain) {
+        if (explain.containsKey("executionStats")) {
+            return explain.get("executionStats", Document.class);
+        }
+        for (Object stage : explain.getList("stages", Object.class, List.of())) {
+            if (stage instanceof Document document && document.containsKey("$cursor")) {
+                return explainStats(document.get("$cursor", Document.class));
+            }
+        }
+        throw new IllegalStateException("No execution stats in explain output: " + explain.toJson());
+    }
+
+    private static boolean containsStage(Object node, String stage) {
+        if (node instanceof Document document) {
+            if (stage.equals(document.get("stage"))) {
+                return true;
+            }
+            return document.values().stream().anyMatch(value -> containsStage(value, stage));
+        }
+        if (node instanceof List<?> list) {
+            return list.stream().anyMatch(value -> containsStage(value, stage));
+        }
+        return false;
+    }
+
+    private static void assertNoFailures(List<String> failures) {
+        if (!failures.isEmpty()) {
+            fail(String.join("\n", failures));
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.backend.demo_login.Routine;
+
+import com.example.backend.demo_login.Auth.Exception.ValidationException;
+import com.example.backend.demo_login.Component.AuditDateTime;
+import com.example.backend.demo_login.Enum.RoutineStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BulkRoutineStatusTests {
+
+    @Test
+    void outcomesFollowRequestedIds() {
+        BulkRoutineStatusRequest request = new BulkRoutineStatusRequest();
+        request.setIds(List.of("a", "b", "missing", "a"));
+        request.setStatus(RoutineStatus.PAUSED);
+        List<Routine> candidates = List.of(routine("b", RoutineStatus.PAUSED), routine("a", RoutineStatus.ACTIVE));
+
+        assertEquals(List.of("a"), BulkRoutineStatus.toChange(candidates, RoutineStatus.PAUSED));
+        assertEquals(List.of(
+                        result("a", RoutineStatusResult.UPDATED),
+                        result("b", RoutineStatusResult.UNCHANGED),
+                        result("missing", RoutineStatusResult.NOT_FOUND)),
+                BulkRoutineStatus.results(request, candidates));
+    }
+
+    @Test
+    void routinesSkippedByTheGuardedUpdateAreNotReportedUpdated() {
+        BulkRoutineStatusRequest request = new BulkRoutineStatusRequest();
+        request.setIds(List.of("ours", "raced", "deleted", "changedAgain"));
+        request.setStatus(RoutineStatus.PAUSED);
+        List<Routine> candidates = List.of(routine("ours", RoutineStatus.ACTIVE), routine("raced", RoutineStatus.ACTIVE),
+                routine("deleted", RoutineStatus.ACTIVE), routine("changedAgain", RoutineStatus.ACTIVE));
+        Instant stamp = BulkRoutineStatus.stamp();
+        Routine deleted = routine("deleted", RoutineStatus.ACTIVE);
+        deleted.setDeletedBy("carol");
+        List<Routine> reread = List.of(
+                stamped(routine("ours", RoutineStatus.PAUSED), "alice", stamp),
+                stamped(routine("raced", RoutineStatus.PAUSED), "bob", stamp.minusMillis(5)),
+                deleted,
+                stamped(routine("changedAgain", RoutineStatus.ACTIVE), "bob", stamp.plusMillis(5)));
+
+        Map<String, String> skipped = BulkRoutineStatus.skipped(
+                BulkRoutineStatus.toChange(candidates, RoutineStatus.PAUSED), reread, RoutineStatus.PAUSED, "alice", stamp);
+
+        assertEquals(List.of(
+                        result("ours", RoutineStatusResult.UPDATED),
+                        result("raced", RoutineStatusResult.UNCHANGED),
+                        result("deleted", RoutineStatusResult.NOT_FOUND),
+                        result("changedAgain", RoutineStatusResult.UPDATED)),
+                BulkRoutineStatus.results(request, candidates, skipped));
+    }
+
+    @Test
+    void requestMustPickRoutinesOneWay() {
+        BulkRoutineStatusRequest neither = new BulkRoutineStatusRequest();
+        neither.setStatus(RoutineStatus.PAUSED);
+        BulkRoutineStatusRequest both = new BulkRoutineStatusRequest();
+        both.setStatus(RoutineStatus.PAUSED);
+        both.setIds(List.of("a"));
+        both.setFilter(new BulkRoutineStatusRequest.Filter());
+        BulkRoutineStatusRequest tooMany = new BulkRoutineStatusRequest();
+        tooMany.setStatus(RoutineStatus.PAUSED);
+        tooMany.setIds(List.of("a", "b", "c"));
+
+        for (BulkRoutineStatusRequest request : List.of(neither, both, tooMany)) {
+            assertThrows(ValidationException.class, () -> BulkRoutineStatus.validate(request, 2));
+        }
+    }
+
+    private static Routine routine(String id, RoutineStatus status) {
+        Routine routine = new Routine();
+        routine.setId(id);
+        routine.setRoutineStatus(status);
+        return routine;
+    }
+
+    private static Routine stamped(Routine routine, String updatedBy, Instant updatedAt) {
+        AuditDateTime auditDateTime = new AuditDateTime();
+        auditDateTime.setUpdatedAt(updatedAt);
+        routine.setUpdatedBy(updatedBy);
+        routine.setAuditDateTime(auditDateTime);
+        return routine;
+    }
+
+    private static RoutineStatusResult result(String id, String outcome) {
+        return RoutineStatusResult.builder().id(id).outcome(outcome).build();
+    }
+}
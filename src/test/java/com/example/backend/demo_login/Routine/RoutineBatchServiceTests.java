@@ -0,0 +1,96 @@
+package com.example.backend.demo_login.Routine;
+
+import com.example.backend.demo_login.Auth.Exception.ValidationException;
+import com.example.backend.demo_login.Enum.RoutineStatus;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RoutineBatchServiceTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private MongoTemplate mongoTemplate;
+    private BulkOperations bulkOperations;
+    private RoutineBatchService service;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        bulkOperations = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), any(Class.class))).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+        service = new RoutineBatchService(mongoTemplate, objectMapper, 2, 3);
+    }
+
+    @Test
+    void arrayRoutinesGetCreateDefaultsAndAreInsertedInChunks() {
+        Routine other = new Routine();
+        other.setUserId("mallory");
+        other.setId("my-routine");
+        List<Routine> routines = new ArrayList<>(List.of(new Routine(), other));
+        routines.add(null);
+
+        List<RoutineCreateResult> results = service.createRoutines(routines, "alice");
+
+        verify(bulkOperations, times(1)).execute();
+        assertEquals(List.of(RoutineCreateResult.CREATED, RoutineCreateResult.CREATED, RoutineCreateResult.INVALID),
+                results.stream().map(RoutineCreateResult::getStatus).toList());
+        assertEquals(2, results.get(2).getIndex());
+        for (Routine routine : routines.subList(0, 2)) {
+            assertTrue(ObjectId.isValid(routine.getId()));
+            assertNotNull(routine.getRoutineId());
+            assertNotNull(routine.getAuditDateTime());
+            assertEquals(RoutineStatus.DRAFT, routine.getRoutineStatus());
+            assertEquals("alice", routine.getUserId());
+            assertEquals("alice", routine.getCreatedBy());
+        }
+        assertEquals(routines.get(0).getId(), results.get(0).getId());
+    }
+
+    @Test
+    void arrayMustHoldBetweenOneAndMaxItems() {
+        assertThrows(ValidationException.class, () -> service.createRoutines(List.of(), "alice"));
+        assertThrows(ValidationException.class, () -> service.createRoutines(
+                new ArrayList<>(Collections.nCopies(4, new Routine())), "alice"));
+    }
+
+    @Test
+    void ndjsonReportsOneResultPerNonBlankLine() throws Exception {
+        String body = "{\"routineName\":\"cleanse\"}\n\nnot json\n{\"routineName\":\"tone\",\"routineStatus\":\"ACTIVE\"}\n";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.createRoutines(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), out, "alice");
+
+        List<JsonNode> results = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            results.add(objectMapper.readTree(line));
+        }
+        assertEquals(List.of(1L, 3L, 4L), results.stream().map(r -> r.get("line").asLong()).toList());
+        assertEquals(List.of(RoutineCreateResult.CREATED, RoutineCreateResult.INVALID, RoutineCreateResult.CREATED),
+                results.stream().map(r -> r.get("status").asText()).toList());
+        // Lines 1 and 3 fill the first chunk, line 4 goes alone into the second
+        verify(bulkOperations, times(2)).execute();
+    }
+}
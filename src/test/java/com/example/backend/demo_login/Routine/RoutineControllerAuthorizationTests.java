@@ -0,0 +1,99 @@
+package com.example.backend.demo_login.Routine;
+
+import com.example.backend.demo_login.Enum.RoutineStatus;
+import com.example.backend.demo_login.User.Users;
+import com.example.backend.demo_login.UserPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Who counts as an admin once stored roles become ROLE_* authorities: the routine owner checks
+ * and the hasRole("ADMIN") rule on the admin endpoints.
+ */
+class RoutineControllerAuthorizationTests {
+
+    private RoutineService routineService;
+    private RoutineController controller;
+
+    @BeforeEach
+    void setUp() {
+        routineService = mock(RoutineService.class);
+        controller = new RoutineController(routineService, mock(RoutineBatchService.class));
+        when(routineService.getRoutinesByUserId(any(), any(), any()))
+                .thenReturn(RoutinePage.builder().routines(List.of()).build());
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void userCannotListAnotherUsersRoutines() {
+        signIn("alice", List.of("USER"));
+
+        assertEquals(HttpStatus.FORBIDDEN, controller.getRoutinesByUserId("bob", null, null).getStatusCode());
+        assertEquals(HttpStatus.OK, controller.getRoutinesByUserId("alice", null, null).getStatusCode());
+        verify(routineService, never()).getRoutinesByUserId(eq("bob"), any(), any());
+    }
+
+    @Test
+    void adminCanListAnotherUsersRoutines() {
+        signIn("root", List.of("USER", "ADMIN"));
+
+        assertEquals(HttpStatus.OK, controller.getRoutinesByUserId("bob", null, null).getStatusCode());
+    }
+
+    @Test
+    void onlyAdminsBulkChangeRoutinesByIdAcrossOwners() {
+        BulkRoutineStatusRequest request = new BulkRoutineStatusRequest();
+        request.setIds(List.of("r1"));
+        request.setStatus(RoutineStatus.PAUSED);
+
+        signIn("alice", List.of("USER"));
+        controller.updateRoutineStatuses(request);
+        verify(routineService).updateRoutineStatuses(request, "alice");
+
+        signIn("root", List.of("ADMIN"));
+        controller.updateRoutineStatuses(request);
+        verify(routineService).updateRoutineStatuses(eq(request), isNull());
+    }
+
+    @Test
+    void adminEndpointsRequireTheAdminRole() {
+        AuthorityAuthorizationManager<Object> adminOnly = AuthorityAuthorizationManager.hasRole("ADMIN");
+
+        assertTrue(adminOnly.check(() -> authentication("root", List.of("ADMIN")), new Object()).isGranted());
+        assertFalse(adminOnly.check(() -> authentication("alice", List.of("USER")), new Object()).isGranted());
+        assertFalse(adminOnly.check(() -> authentication("carol", List.of()), new Object()).isGranted());
+    }
+
+    private static void signIn(String username, List<String> roles) {
+        SecurityContextHolder.getContext().setAuthentication(authentication(username, roles));
+    }
+
+    // What JwtFilter puts in the context for a verified token
+    private static Authentication authentication(String username, List<String> roles) {
+        UserPrincipal principal = new UserPrincipal(Users.builder().username(username).roles(roles).build());
+        return new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+    }
+}
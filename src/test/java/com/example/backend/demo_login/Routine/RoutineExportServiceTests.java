@@ -0,0 +1,34 @@
+package com.example.backend.demo_login.Routine;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RoutineExportServiceTests {
+
+    private final RoutineExportService service = new RoutineExportService(null, new ObjectMapper(), 10);
+
+    @Test
+    void updatedRangeFallsBackToCreatedAtForRoutinesNeverUpdated() {
+        Instant lastRun = Instant.parse("2026-10-01T00:00:00Z");
+
+        Document query = service.exportQuery(null, null, lastRun, null).getQueryObject();
+
+        assertEquals(List.of(
+                        new Document("auditDateTime.updatedAt", new Document("$gte", lastRun)),
+                        new Document("auditDateTime.updatedAt", null)
+                                .append("auditDateTime.createdAt", new Document("$gte", lastRun))),
+                query.get("$or"));
+    }
+
+    @Test
+    void noRangeMeansNoDateCondition() {
+        assertNull(service.exportQuery("alice", null, null, null).getQueryObject().get("$or"));
+    }
+}
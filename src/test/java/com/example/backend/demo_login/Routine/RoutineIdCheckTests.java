@@ -0,0 +1,25 @@
+package com.example.backend.demo_login.Routine;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RoutineIdCheckTests {
+
+    @Test
+    void countsRoutinesWhoseIdIsNotAnObjectId() {
+        assertEquals(new Document("_id", new Document("$not", new Document("$type", 7))),
+                RoutineIdCheck.unlistedQuery().getQueryObject());
+
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.count(any(Query.class), eq(Routine.class))).thenReturn(3L);
+        assertEquals(3L, new RoutineIdCheck(mongoTemplate, false).countUnlisted());
+    }
+}
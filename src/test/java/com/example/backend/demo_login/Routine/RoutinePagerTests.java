@@ -0,0 +1,65 @@
+package com.example.backend.demo_login.Routine;
+
+import com.example.backend.demo_login.Auth.Exception.ValidationException;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoutinePagerTests {
+
+    private final RoutinePager pager = new RoutinePager(2, 3);
+
+    @Test
+    void fullPageHandsOutCursorForItsLastRoutine() {
+        List<Routine> fetched = routines(3);
+        Pageable pageable = pager.pageable(null);
+
+        RoutinePage page = pager.page(fetched, pageable);
+
+        assertEquals(3, pageable.getPageSize());
+        assertEquals(2, page.getRoutines().size());
+        assertEquals(new ObjectId(fetched.get(1).getId()), pager.after(page.getNextCursor()));
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        assertNull(pager.page(routines(2), pager.pageable(null)).getNextCursor());
+    }
+
+    @Test
+    void firstPageStartsBeforeEveryId() {
+        assertTrue(pager.after(null).compareTo(new ObjectId()) < 0);
+        assertEquals(pager.after(null), pager.after(""));
+    }
+
+    @Test
+    void pageSizeIsCapped() {
+        assertEquals(4, pager.pageable(100).getPageSize());
+        assertThrows(ValidationException.class, () -> pager.pageable(0));
+    }
+
+    @Test
+    void forgedCursorsAreRejected() {
+        for (String cursor : List.of("not base64!", "AAAA", new ObjectId().toHexString())) {
+            assertThrows(ValidationException.class, () -> pager.after(cursor));
+        }
+    }
+
+    private static List<Routine> routines(int count) {
+        List<Routine> routines = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Routine routine = new Routine();
+            routine.setId(new ObjectId().toHexString());
+            routines.add(routine);
+        }
+        return routines;
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.backend.demo_login.Service;
+
+import com.example.backend.demo_login.Auth.Exception.InvalidTokenException;
+import com.example.backend.demo_login.Signing.SigningKeyRing;
+import com.example.backend.demo_login.User.Users;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Equivalence of the HS256 fast path with jjwt for tokens issued by JWTService.
+ */
+class Hs256FastVerifierTests {
+
+    private static final String SECRET = "bXlKV1RTZWNyZXRLZXkyMDI0Rm9yRGV2ZWxvcG1lbnQ=";
+
+    private SigningKeyRing signingKeyRing;
+    private JWTService jjwtService;
+    private JWTService fastService;
+    private Hs256FastVerifier fastVerifier;
+
+    @BeforeEach
+    void setUp() {
+        signingKeyRing = new SigningKeyRing(null, null);
+        ReflectionTestUtils.setField(signingKeyRing, "secretKey", SECRET);
+        ReflectionTestUtils.setField(signingKeyRing, "algorithm", SigningKeyRing.HS256);
+        signingKeyRing.init();
+
+        jjwtService = newService(false, 3600000);
+        fastService = newService(true, 3600000);
+        fastVerifier = new Hs256FastVerifier(signingKeyRing.getHmacKey());
+    }
+
+    private JWTService newService(boolean fast, long expiration) {
+        JWTService service = new JWTService(signingKeyRing);
+        ReflectionTestUtils.setField(service, "jwtExpiration", expiration);
+        ReflectionTestUtils.setField(service, "fastVerifierEnabled", fast);
+        service.init();
+        return service;
+    }
+
+    @Test
+    void issuedTokensVerifyIdenticallyToJjwt() {
+        Users user = Users.builder()
+                .userId("alice:alice@example.com")
+                .username("alice")
+                .roles(List.of("USER", "ADMIN"))
+                .build();
+        List<String> tokens = List.of(
+                jjwtService.generateToken("bob"),
+                jjwtService.generateToken(user),
+                jjwtService.generateToken("jörg_ünïcode"));
+
+        for (String token : tokens) {
+            VerifiedToken expected = jjwtService.verify(token);
+            VerifiedToken actual = fastVerifier.verify(token, System.currentTimeMillis());
+            assertNotNull(actual, "fast path should handle " + token);
+            assertEquals(expected.getSubject(), actual.getSubject());
+            assertEquals(expected.getId(), actual.getId());
+            assertEquals(expected.getIssuedAt(), actual.getIssuedAt());
+            assertEquals(expected.getExpiration(), actual.getExpiration());
+        }
+    }
+
+    @Test
+    void tamperedSignatureIsRejected() {
+        String token = jjwtService.generateToken("bob");
+        char last = token.charAt(token.length() - 2);
+        String tampered = token.substring(0, token.length() - 2) + (last == 'A' ? 'B' : 'A') + token.charAt(token.length() - 1);
+
+        assertThrows(InvalidTokenException.class, () -> jjwtService.verify(tampered));
+        assertThrows(InvalidTokenException.class, () -> fastService.verify(tampered));
+    }
+
+    @Test
+    void tamperedPayloadIsRejected() {
+        String token = jjwtService.generateToken("bob");
+        String forgedPayload = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("{\"sub\":\"admin\",\"exp\":9999999999}".getBytes());
+        String[] parts = token.split("\\.");
+        String forged = parts[0] + "." + forgedPayload + "." + parts[2];
+
+        assertThrows(InvalidTokenException.class, () -> jjwtService.verify(forged));
+        assertThrows(InvalidTokenException.class, () -> fastService.verify(forged));
+    }
+
+    @Test
+    void tokenSignedWithAnotherKeyIsRejected() {
+        String token = Jwts.builder()
+                .subject("bob")
+                .expiration(new Date(System.currentTimeMillis() + 60000))
+                .signWith(Keys.hmacShaKeyFor(new byte[32]))
+                .compact();
+
+        assertThrows(InvalidTokenException.class, () -> jjwtService.verify(token));
+        assertThrows(InvalidTokenException.class, () -> fastService.verify(token));
+    }
+
+    @Test
+    void expiredTokenIsRejectedWithSameMessage() {
+        String token = newService(false, -1000).generateToken("bob");
+
+        InvalidTokenException jjwt = assertThrows(InvalidTokenException.class, () -> jjwtService.verify(token));
+        InvalidTokenException fast = assertThrows(InvalidTokenException.class, () -> fastService.verify(token));
+        assertEquals(jjwt.getMessage(), fast.getMessage());
+    }
+
+    @Test
+    void unusualTokensFallBackToJjwt() {
+        Date expiration = new Date(System.currentTimeMillis() + 60000);
+        List<String> unusual = List.of(
+                // kid header (unknown to the HS256 key ring, so both reject it)
+                Jwts.builder().header().keyId("k1").and()
+                        .subject("bob").expiration(expiration)
+                        .signWith(signingKeyRing.getHmacKey()).compact(),
+                // escaped characters in the subject
+                Jwts.builder().subject("bo\"b\\").expiration(expiration)
+                        .signWith(signingKeyRing.getHmacKey()).compact(),
+                // not-before claim
+                Jwts.builder().subject("bob").notBefore(new Date()).expiration(expiration)
+                        .signWith(signingKeyRing.getHmacKey()).compact(),
+                // no expiry
+                Jwts.builder().subject("bob")
+                        .signWith(signingKeyRing.getHmacKey()).compact());
+
+        for (String token : unusual) {
+            assertNull(fastVerifier.verify(token, System.currentTimeMillis()), "expected fallback for " + token);
+            assertEquals(outcome(jjwtService, token), outcome(fastService, token));
+        }
+    }
+
+    @Test
+    void malformedTokensAreRejectedLikeJjwt() {
+        for (String token : List.of("", "abc", Hs256FastVerifier.HS256_HEADER + ".", Hs256FastVerifier.HS256_HEADER + ".e30.")) {
+            assertEquals(outcome(jjwtService, token), outcome(fastService, token));
+        }
+    }
+
+    // Subject on success, exception type and message on failure
+    private static String outcome(JWTService service, String token) {
+        try {
+            return "ok:" + service.verify(token).getSubject();
+        } catch (RuntimeException e) {
+            return e.getClass().getSimpleName() + ":" + e.getMessage();
+        }
+    }
+}
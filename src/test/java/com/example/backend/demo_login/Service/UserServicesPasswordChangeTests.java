@@ -0,0 +1,89 @@
+package com.example.backend.demo_login.Service;
+
+import com.example.backend.demo_login.Auth.ChangePasswordRequest;
+import com.example.backend.demo_login.Auth.Exception.CustomAuthenticationException;
+import com.example.backend.demo_login.Auth.Exception.TooManyRequestsException;
+import com.example.backend.demo_login.Auth.Refresh.RefreshTokenService;
+import com.example.backend.demo_login.Revocation.TokenRevocationService;
+import com.example.backend.demo_login.User.UserRepo;
+import com.example.backend.demo_login.User.Users;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The current password check of a password change is throttled like login, and a successful
+ * change rewrites only the password field.
+ */
+class UserServicesPasswordChangeTests {
+
+    private static final String TOKEN = "Bearer access";
+
+    private final UserRepo userRepo = mock(UserRepo.class);
+    private final PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+    private final UserService userService = mock(UserService.class);
+    private final RefreshTokenService refreshTokenService = mock(RefreshTokenService.class);
+    private final UserServices userServices = new UserServices();
+
+    @BeforeEach
+    void setUp() {
+        JWTService jwtService = mock(JWTService.class);
+        when(jwtService.verify("access")).thenReturn(VerifiedToken.builder().token("access").subject("alice").build());
+        when(userRepo.findByUsername("alice")).thenReturn(Optional.of(Users.builder().username("alice").password("{bcrypt}hash").build()));
+        when(passwordEncoder.matches("Correct#Pass1", "{bcrypt}hash")).thenReturn(true);
+        when(passwordEncoder.encode(anyString())).thenReturn("{bcrypt}new");
+
+        ReflectionTestUtils.setField(userServices, "jwtService", jwtService);
+        ReflectionTestUtils.setField(userServices, "userRepo", userRepo);
+        ReflectionTestUtils.setField(userServices, "passwordEncoder", passwordEncoder);
+        ReflectionTestUtils.setField(userServices, "userService", userService);
+        ReflectionTestUtils.setField(userServices, "refreshTokenService", refreshTokenService);
+        ReflectionTestUtils.setField(userServices, "tokenRevocationService", mock(TokenRevocationService.class));
+        ReflectionTestUtils.setField(userServices, "loginThrottleService", new LoginThrottleService(
+                new SimpleMeterRegistry(), 4, 100, 900000, 5, 5, 30, 30, 3, 60000, 900000));
+    }
+
+    @Test
+    void guessingTheCurrentPasswordIsThrottled() {
+        for (int i = 0; i < 3; i++) {
+            assertThrows(CustomAuthenticationException.class,
+                    () -> userServices.changePassword(TOKEN, request("Wrong#Pass1"), "10.0.0.1"));
+        }
+
+        // Blocked before the user is loaded or a hash is computed, even with the right password
+        assertThrows(TooManyRequestsException.class,
+                () -> userServices.changePassword(TOKEN, request("Correct#Pass1"), "10.0.0.2"));
+        verify(passwordEncoder, times(3)).matches(anyString(), anyString());
+        verify(userService, never()).updatePassword(any(), anyString());
+    }
+
+    @Test
+    void changeRewritesOnlyThePasswordAndRevokesRefreshTokens() {
+        userServices.changePassword(TOKEN, request("Correct#Pass1"), "10.0.0.1");
+
+        verify(userService).updatePassword(any(), eq("{bcrypt}new"));
+        verify(userRepo, never()).save(any());
+        verify(refreshTokenService).revokeAll("alice");
+    }
+
+    private static ChangePasswordRequest request(String currentPassword) {
+        ChangePasswordRequest request = new ChangePasswordRequest();
+        request.setCurrentPassword(currentPassword);
+        request.setNewPassword("EvenSafer456!");
+        return request;
+    }
+}
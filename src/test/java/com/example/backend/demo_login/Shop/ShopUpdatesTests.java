@@ -0,0 +1,19 @@
+package com.example.backend.demo_login.Shop;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ShopUpdatesTests {
+
+    @Test
+    void patchOnlyMatchesAShopTheCallerOwns() {
+        Document query = ShopUpdates.owned("s1", "alice").getQueryObject();
+
+        assertEquals("s1", query.get("id"));
+        assertEquals(List.of(new Document("userId", "alice"), new Document("createdBy", "alice")), query.get("$or"));
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.backend.demo_login.Signing;
+
+import com.example.backend.demo_login.Auth.Exception.InvalidTokenException;
+import com.example.backend.demo_login.Service.JWTService;
+import com.example.backend.demo_login.Service.VerifiedTokenCache;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Which tokens a key ring in asymmetric mode accepts, how often it goes back to Mongo for
+ * unknown kids, and when a rotated-in key starts signing. Publishing to Mongo fails unless a
+ * test mocks it; the ring logs and retries that, which does not affect local verification.
+ */
+class SigningKeyRingTests {
+
+    private static final String SECRET = "bXlKV1RTZWNyZXRLZXkyMDI0Rm9yRGV2ZWxvcG1lbnQ=";
+
+    @Test
+    void kidLessHs256IsRejectedInAsymmetricMode() {
+        SigningKeyRing ring = ring("");
+        JWTService service = service(ring, true);
+
+        assertThrows(InvalidTokenException.class, () -> service.verify(hs256Token(ring)));
+        assertEquals("bob", service.verify(service.generateToken("bob")).getSubject());
+    }
+
+    @Test
+    void kidLessHs256IsAcceptedOnlyUntilTheTransitionDeadline() {
+        SigningKeyRing open = ring(Instant.now().plusSeconds(3600).toString());
+        SigningKeyRing closed = ring(Instant.now().minusSeconds(1).toString());
+
+        assertEquals("bob", service(open, true).verify(hs256Token(open)).getSubject());
+        assertEquals("bob", service(open, false).verify(hs256Token(open)).getSubject());
+        assertThrows(InvalidTokenException.class, () -> service(closed, true).verify(hs256Token(closed)));
+        assertThrows(InvalidTokenException.class, () -> service(closed, false).verify(hs256Token(closed)));
+    }
+
+    @Test
+    void cachedHs256TokenDoesNotOutliveTheTransitionWindow() {
+        SigningKeyRing ring = ring(Instant.now().plusSeconds(3600).toString());
+        VerifiedTokenCache cache = new VerifiedTokenCache(service(ring, false), new SimpleMeterRegistry(), true, 100);
+        String token = hs256Token(ring);
+        assertEquals("bob", cache.verify(token).getSubject());
+
+        ReflectionTestUtils.setField(ring, "legacyHs256Deadline", Instant.now().minusSeconds(1));
+
+        assertThrows(InvalidTokenException.class, () -> cache.verify(token));
+    }
+
+    @Test
+    void burstOfUnknownKidsReloadsPublishedKeysOnce() throws Exception {
+        PublishedKeyRepository repository = mock(PublishedKeyRepository.class);
+        when(repository.findAll()).thenReturn(List.of());
+        SigningKeyRing ring = ring("", repository);
+        JWTService service = service(ring, false);
+        String token = Jwts.builder().header().keyId("other-node").and()
+                .subject("bob")
+                .expiration(new Date(System.currentTimeMillis() + 60000))
+                .signWith(Jwts.SIG.EdDSA.keyPair().build().getPrivate())
+                .compact();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> attempts = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                attempts.add(executor.submit(() -> assertThrows(InvalidTokenException.class, () -> service.verify(token))));
+            }
+            for (Future<?> attempt : attempts) {
+                attempt.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        verify(repository, times(1)).findAll();
+    }
+
+    @Test
+    void rotatedInKeySignsOnlyAfterBeingPublishedForAJwksMaxAge() {
+        SigningKeyRing ring = ring("", publishingRepository(), mongoTemplate(), 300000);
+        SigningKey current = ring.getActiveKey();
+
+        ring.rotate();
+        ring.refresh();
+        assertEquals(current.getKid(), ring.getActiveKey().getKid());
+        SigningKey next = (SigningKey) ReflectionTestUtils.getField(ring, "nextKey");
+        assertTrue(ring.getJwksJson().contains(next.getKid()));
+
+        publishedAt(ring).put(next.getKid(), Instant.now().minusSeconds(301));
+        ring.refresh();
+        assertEquals(next.getKid(), ring.getActiveKey().getKid());
+        assertTrue(ring.getJwksJson().contains(current.getKid()));
+    }
+
+    @Test
+    void currentKeyKeepsSigningWhileTheNextOneCannotBePublished() {
+        PublishedKeyRepository repository = publishingRepository();
+        when(repository.save(any())).thenThrow(new IllegalStateException("mongo down"));
+        SigningKeyRing ring = ring("", repository, mongoTemplate(), 0);
+        SigningKey current = ring.getActiveKey();
+
+        ring.rotate();
+        ring.refresh();
+
+        assertEquals(current.getKid(), ring.getActiveKey().getKid());
+    }
+
+    private static PublishedKeyRepository publishingRepository() {
+        PublishedKeyRepository repository = mock(PublishedKeyRepository.class);
+        when(repository.findAll()).thenReturn(List.of());
+        return repository;
+    }
+
+    private static MongoTemplate mongoTemplate() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.indexOps(any(Class.class))).thenReturn(mock(IndexOperations.class));
+        return mongoTemplate;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Instant> publishedAt(SigningKeyRing ring) {
+        return (Map<String, Instant>) ReflectionTestUtils.getField(ring, "publishedAt");
+    }
+
+    private static SigningKeyRing ring(String legacyHs256Until) {
+        return ring(legacyHs256Until, null);
+    }
+
+    private static SigningKeyRing ring(String legacyHs256Until, PublishedKeyRepository repository) {
+        return ring(legacyHs256Until, repository, null, 0);
+    }
+
+    private static SigningKeyRing ring(String legacyHs256Until, PublishedKeyRepository repository,
+                                       MongoTemplate mongoTemplate, long jwksMaxAge) {
+        SigningKeyRing ring = new SigningKeyRing(repository, mongoTemplate);
+        ReflectionTestUtils.setField(ring, "jwksMaxAge", jwksMaxAge);
+        ReflectionTestUtils.setField(ring, "secretKey", SECRET);
+        ReflectionTestUtils.setField(ring, "algorithm", SigningKeyRing.EDDSA);
+        ReflectionTestUtils.setField(ring, "jwtExpiration", 3600000L);
+        ReflectionTestUtils.setField(ring, "rotationInterval", 86400000L);
+        ReflectionTestUtils.setField(ring, "legacyHs256Until", legacyHs256Until);
+        ring.init();
+        return ring;
+    }
+
+    private static JWTService service(SigningKeyRing ring, boolean fastVerifier) {
+        JWTService service = new JWTService(ring);
+        ReflectionTestUtils.setField(service, "jwtExpiration", 3600000L);
+        ReflectionTestUtils.setField(service, "fastVerifierEnabled", fastVerifier);
+        service.init();
+        return service;
+    }
+
+    // What an HS256 node issued before the switch: no kid, signed with the shared secret
+    private static String hs256Token(SigningKeyRing ring) {
+        return Jwts.builder()
+                .subject("bob")
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 60000))
+                .signWith(ring.getHmacKey())
+                .compact();
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.backend.demo_login;
+
+import com.example.backend.demo_login.User.Users;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class UserPrincipalTests {
+
+    @Test
+    void rolesBecomeRoleAuthorities() {
+        assertEquals(List.of("ROLE_USER", UserPrincipal.ADMIN_AUTHORITY), authorities(List.of("USER", "ADMIN")));
+        assertEquals(List.of("ROLE_ADMIN"), authorities(List.of("ROLE_ADMIN")));
+    }
+
+    @Test
+    void userWithoutRolesIsAPlainUser() {
+        assertEquals(List.of("ROLE_USER"), authorities(List.of()));
+    }
+
+    private static List<String> authorities(List<String> roles) {
+        Users user = Users.builder().username("alice").roles(roles).build();
+        return new UserPrincipal(user).getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+    }
+}
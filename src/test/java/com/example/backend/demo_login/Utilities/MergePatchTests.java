@@ -0,0 +1,51 @@
+package com.example.backend.demo_login.Utilities;
+
+import com.example.backend.demo_login.Auth.Exception.ValidationException;
+import com.example.backend.demo_login.Enum.RoutineStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MergePatchTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final MergePatch mergePatch = new MergePatch(
+            Map.of("name", String.class, "description", String.class, "status", RoutineStatus.class),
+            Set.of("status"));
+
+    @Test
+    void onlySuppliedFieldsAreSetOrUnset() {
+        Map<String, Object> patch = new HashMap<>();
+        patch.put("status", "ACTIVE");
+        patch.put("description", null);
+
+        Document update = mergePatch.toUpdate(patch, objectMapper).getUpdateObject();
+
+        assertEquals(new Document("status", RoutineStatus.ACTIVE), update.get("$set"));
+        assertEquals(new Document("description", 1), update.get("$unset"));
+        assertEquals(Set.of("$set", "$unset"), update.keySet());
+    }
+
+    @Test
+    void emptyPatchChangesNothing() {
+        assertTrue(mergePatch.toUpdate(Map.of(), objectMapper).getUpdateObject().isEmpty());
+    }
+
+    @Test
+    void invalidPatchesAreRejected() {
+        Map<String, Object> removesRequired = new HashMap<>();
+        removesRequired.put("status", null);
+
+        assertThrows(ValidationException.class, () -> mergePatch.toUpdate(Map.of("createdBy", "mallory"), objectMapper));
+        assertThrows(ValidationException.class, () -> mergePatch.toUpdate(removesRequired, objectMapper));
+        assertThrows(ValidationException.class, () -> mergePatch.toUpdate(Map.of("status", "NOPE"), objectMapper));
+    }
+}